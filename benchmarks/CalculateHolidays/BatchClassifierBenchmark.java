@@ -0,0 +1,78 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       BatchClassifierBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of the HolidayBatchClassifier on one million
+| generated (date, state) records held in memory, counts only and
+| annotated output.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchClassifierBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+
+    private byte[] input;
+    private final HolidayBatchClassifier classifier = HolidayBatchClassifier.Create();
+
+    @Setup
+    public void Setup() {
+        Random random = new Random(42);
+        long firstDay = LocalDate.of(2000, 1, 1).toEpochDay();
+        StringBuilder csv = new StringBuilder(RECORDS * 24);
+        for (int i = 0; i < RECORDS; i++) {
+            FederalState state = FederalState.FromOrdinal(random.nextInt(FederalState.Count()));
+            csv.append(LocalDate.ofEpochDay(firstDay + random.nextInt(30 * 365))).append(',').append(state.GetCode())
+                .append(',').append(i).append('\n');
+        }
+        input = csv.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public HolidayBatchResult Counts() throws IOException {
+        return classifier.Classify(Channels.newChannel(new ByteArrayInputStream(input)), null);
+    }
+
+    @Benchmark
+    public HolidayBatchResult Annotated() throws IOException {
+        return classifier.Classify(Channels.newChannel(new ByteArrayInputStream(input)), OutputStream.nullOutputStream());
+    }
+}
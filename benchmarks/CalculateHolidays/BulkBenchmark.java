@@ -0,0 +1,94 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       BulkBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of HolidayBulkGenerator: full calendars of all 16
+| states over 300 years, one instance and list per year and state
+| (the classic way), the generator on one thread and on fork/join
+| pools of 1 to 8 threads. The speedup is Sequential / Parallel of
+| the same thread count; it can only show on a machine with that
+| many cores. The scaling has not been measured yet: the numbers so
+| far come from a single-core machine, where every thread count
+| runs at the speed of Sequential.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBenchmark {
+
+    private static final int FROM_YEAR = 1950;
+    private static final int TO_YEAR = 2249;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private HolidayBulkGenerator generator;
+
+    @Setup
+    public void Setup() {
+        pool = new ForkJoinPool(threads);
+        generator = HolidayBulkGenerator.Create().WithPool(pool);
+    }
+
+    @TearDown
+    public void TearDown() {
+        pool.shutdown();
+    }
+
+    // One instance and list per year and state
+    @Benchmark
+    public void Classic(Blackhole bh) {
+        for (int year = FROM_YEAR; year <= TO_YEAR; year++) {
+            for (FederalState state : FederalState.values()) {
+                CalculateHolidays ch = new CalculateHolidays(year);
+                ch.SetRegionFilter(state.GetCode());
+                bh.consume(ch.GetHolidaysFullList());
+            }
+        }
+    }
+
+    @Benchmark
+    public HolidayBulkResult Sequential() {
+        return generator.GenerateSequential(FROM_YEAR, TO_YEAR);
+    }
+
+    @Benchmark
+    public HolidayBulkResult Parallel() {
+        return generator.Generate(FROM_YEAR, TO_YEAR);
+    }
+}
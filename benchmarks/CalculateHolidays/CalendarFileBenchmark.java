@@ -0,0 +1,81 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       CalendarFileBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmarks of queries against the memory-mapped calendar
+| file compared with the HolidayCalculator, and of opening the file.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarFileBenchmark {
+
+    private final LocalDate date = LocalDate.of(2024, 10, 31);
+    private final HolidayCalculator calculator = HolidayCalculator.Create();
+    private Path file;
+    private HolidayCalendarFile calendar;
+
+    @Setup
+    public void Setup() throws IOException {
+        file = Files.createTempFile("holidays", ".cal");
+        HolidayCalendarFile.Write(file, HolidayCalendarFile.DEFAULT_FIRST_YEAR, HolidayCalendarFile.DEFAULT_LAST_YEAR);
+        calendar = HolidayCalendarFile.Open(file);
+    }
+
+    @TearDown
+    public void TearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean IsHolidayFile() {
+        return calendar.IsHoliday(date, FederalState.SN);
+    }
+
+    @Benchmark
+    public boolean IsHolidayCalculator() {
+        return calculator.IsHoliday(date, FederalState.SN);
+    }
+
+    // Map, validate header and checksum
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HolidayCalendarFile Open() throws IOException {
+        return HolidayCalendarFile.Open(file);
+    }
+}
@@ -0,0 +1,71 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       CountryBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of HolidayCountry: IsHoliday() for Germany through
+| the provider and directly through HolidayCalculator, and for a
+| Swiss canton.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountryBenchmark {
+
+    private final LocalDate corpusChristi = LocalDate.of(2025, 6, 19);
+    private HolidayCalculator calculator;
+    private HolidayCountry germany;
+    private HolidayCountry switzerland;
+
+    @Setup
+    public void Setup() {
+        calculator = HolidayCalculator.Create();
+        germany = HolidayCountry.Of("DE");
+        switzerland = HolidayCountry.Of("CH");
+    }
+
+    @Benchmark
+    public boolean GermanyCalculator() {
+        return calculator.IsHoliday(corpusChristi, FederalState.BY);
+    }
+
+    @Benchmark
+    public boolean GermanyProvider() {
+        return germany.IsHoliday(corpusChristi, "BY");
+    }
+
+    @Benchmark
+    public boolean SwitzerlandProvider() {
+        return switzerland.IsHoliday(corpusChristi, "LU");
+    }
+}
@@ -0,0 +1,72 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       ExportBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of the HolidayExporter: feed of one federal state
+| over 100 years in each format, written to a discarding Writer.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2000, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2099, 12, 31);
+
+    private final HolidayCalculator calculator = HolidayCalculator.Create();
+    private final HolidayFilter filter = HolidayFilter.OfStates(FederalState.BY);
+
+    @Benchmark
+    public long Ics() throws IOException {
+        return Export(HolidayExportFormat.ICS);
+    }
+
+    @Benchmark
+    public long Csv() throws IOException {
+        return Export(HolidayExportFormat.CSV);
+    }
+
+    @Benchmark
+    public long Json() throws IOException {
+        return Export(HolidayExportFormat.JSON);
+    }
+
+    private long Export(HolidayExportFormat format) throws IOException {
+        try (HolidayExporter exporter = HolidayExporter.Create(format, Writer.nullWriter())) {
+            exporter.WriteAll(calculator.GetHolidaysBetween(FROM, TO, filter));
+            return exporter.GetCount();
+        }
+    }
+}
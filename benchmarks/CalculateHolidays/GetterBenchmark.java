@@ -0,0 +1,99 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       GetterBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmarks of the construction, single
+| holiday getters and the formatting of the display date and name.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetterBenchmark {
+
+    @Param({"2024"})
+    public int year;
+
+    private CalculateHolidays ch;
+
+    @Setup
+    public void Setup() {
+        ch = new CalculateHolidays(year);
+    }
+
+    // Constructor
+    @Benchmark
+    public void Construct(Blackhole bh) {
+        bh.consume(new CalculateHolidays(year));
+    }
+
+    // Fixed date
+    @Benchmark
+    public void GetChristmasEve(Blackhole bh) {
+        bh.consume(ch.GetChristmasEve());
+    }
+
+    // Relative to Easter
+    @Benchmark
+    public void GetCorpusChristi(Blackhole bh) {
+        bh.consume(ch.GetCorpusChristi());
+    }
+
+    // Relative to the fourth Advent
+    @Benchmark
+    public void GetMemorialDay(Blackhole bh) {
+        bh.consume(ch.GetMemorialDay());
+    }
+
+    // Weekday before a date
+    @Benchmark
+    public void GetDayOfPrayerAndRepentance(Blackhole bh) {
+        bh.consume(ch.GetDayOfPrayerAndRepentance());
+    }
+
+    // German display date of a fresh entry, formerly ConvertDateToGermanFormat
+    @Benchmark
+    public void FormatGermanDate(Blackhole bh) {
+        bh.consume(ch.GetAscensionOfChrist().GetDate());
+    }
+
+    // English display date and name through the shared HolidayFormatter
+    @Benchmark
+    public void FormatEnglish(Blackhole bh) {
+        HolidayEntry entry = ch.GetAscensionOfChrist();
+        bh.consume(entry.GetDate(Locale.ENGLISH));
+        bh.consume(entry.GetNameOfHoliday(Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,105 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayListBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmarks of the full-year list with and without filters
+| and of the look-ahead list, each with the HolidayCache enabled
+| and disabled.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayListBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private CalculateHolidays unfiltered;
+    private CalculateHolidays regionFiltered;
+    private CalculateHolidays typeFiltered;
+    private CalculateHolidays fullyFiltered;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        HolidayCache.SetCapacity(cached ? HolidayCache.DEFAULT_CAPACITY : 0);
+        HolidayCache.Clear();
+
+        unfiltered = new CalculateHolidays(2024);
+
+        regionFiltered = new CalculateHolidays(2024);
+        regionFiltered.SetRegionFilter("NW");
+
+        typeFiltered = new CalculateHolidays(2024);
+        typeFiltered.AddHolidayTypeFilter(0);
+
+        fullyFiltered = new CalculateHolidays(2024);
+        fullyFiltered.AddHolidayTypeFilter(List.of(0, 1));
+        fullyFiltered.SetRegionFilter("ST");
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown() {
+        HolidayCache.SetCapacity(HolidayCache.DEFAULT_CAPACITY);
+    }
+
+    @Benchmark
+    public void FullList(Blackhole bh) {
+        bh.consume(unfiltered.GetHolidaysFullList());
+    }
+
+    @Benchmark
+    public void FullListRegionFilter(Blackhole bh) {
+        bh.consume(regionFiltered.GetHolidaysFullList());
+    }
+
+    @Benchmark
+    public void FullListTypeFilter(Blackhole bh) {
+        bh.consume(typeFiltered.GetHolidaysFullList());
+    }
+
+    @Benchmark
+    public void FullListTypeAndRegionFilter(Blackhole bh) {
+        bh.consume(fullyFiltered.GetHolidaysFullList());
+    }
+
+    // Look-ahead path, crosses into the next year
+    @Benchmark
+    public void FuturedHolidays(Blackhole bh) {
+        bh.consume(unfiltered.GetFuturedHolidaysList(50));
+    }
+}
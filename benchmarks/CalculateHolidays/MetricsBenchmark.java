@@ -0,0 +1,75 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       MetricsBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of the HolidayMetrics overhead: the cheapest and a
+| typical list query with the instrumentation disabled and enabled.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private final HolidayCalculator calculator = HolidayCalculator.Create();
+    private final HolidayFilter filter = HolidayFilter.OfStates(FederalState.NW);
+    private final LocalDate date = LocalDate.of(2024, 10, 3);
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        HolidayMetrics.SetEnabled(enabled);
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown() {
+        HolidayMetrics.SetEnabled(false);
+        HolidayMetrics.ResetStatistics();
+    }
+
+    @Benchmark
+    public boolean IsHoliday() {
+        return calculator.IsHoliday(date, FederalState.NW);
+    }
+
+    @Benchmark
+    public List<HolidayEntry> FilteredYear() {
+        return calculator.GetHolidays(2024, filter);
+    }
+}
@@ -0,0 +1,107 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       MultiYearBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmarks of sweeps over many years: one CalculateHolidays
+| per year versus the lazy range stream, and the batch methods of
+| the EasterTable.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiYearBenchmark {
+
+    @Param({"1950"})
+    public int fromYear;
+
+    @Param({"2250"})
+    public int toYear;
+
+    private int[] years;
+    private int[] feasts;
+
+    @Setup
+    public void Setup() {
+        years = new int[toYear - fromYear + 1];
+        for (int i = 0; i < years.length; i++) {
+            years[i] = fromYear + i;
+        }
+        feasts = new int[years.length * MovableFeast.Count()];
+    }
+
+    // One instance and list per year, the classic way
+    @Benchmark
+    public void ListPerYear(Blackhole bh) {
+        for (int year = fromYear; year <= toYear; year++) {
+            CalculateHolidays ch = new CalculateHolidays(year);
+            ch.SetRegionFilter("BY");
+            bh.consume(ch.GetHolidaysFullList());
+        }
+    }
+
+    @Benchmark
+    public void RangeStream(Blackhole bh) {
+        CalculateHolidays ch = new CalculateHolidays(fromYear);
+        ch.SetRegionFilter("BY");
+        ch.GetHolidaysBetween(LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31)).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void RangeStreamParallel(Blackhole bh) {
+        CalculateHolidays ch = new CalculateHolidays(fromYear);
+        ch.SetRegionFilter("BY");
+        bh.consume(ch.GetHolidaysBetween(LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31)).parallel().count());
+    }
+
+    // Easter and all movable feasts of every year into a reused array
+    @Benchmark
+    public void MovableFeastsBatch(Blackhole bh) {
+        EasterTable.Default().GetMovableFeasts(years, feasts);
+        bh.consume(feasts);
+    }
+
+    // Same via LocalDate, one object per feast
+    @Benchmark
+    public void MovableFeastsLocalDate(Blackhole bh) {
+        int[] offsets = MovableFeast.GetOffsets();
+        for (int year : years) {
+            LocalDate easter = EasterTable.Default().GetEaster(year);
+            for (int f = 0; f < MovableFeast.Count(); f++) {
+                bh.consume(easter.plusDays(offsets[f]));
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       PlannerBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of VacationPlanner: the five best plans of a year
+| for all 16 states with 10 and 30 leave days, and the bridge days
+| of all states.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlannerBenchmark {
+
+    private static final FederalState[] STATES = FederalState.values();
+
+    @Param({"10", "30"})
+    public int leaveDays;
+
+    @Benchmark
+    public void AllStates(Blackhole blackhole) {
+        for (FederalState state : STATES) {
+            blackhole.consume(VacationPlanner.GetPlans(2025, state, leaveDays, 5));
+        }
+    }
+
+    @Benchmark
+    public void BridgeDays(Blackhole blackhole) {
+        for (FederalState state : STATES) {
+            blackhole.consume(VacationPlanner.GetBridgeDays(2025, state));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       RegionBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of HolidayRegions with 11,000 generated places:
+| lookup of a place without local changes, with a local holiday
+| (Augsburg) and with an excluded state holiday (Nürnberg).
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionBenchmark {
+
+    private static final int PLACES = 11_000;
+
+    private final LocalDate assumptionDay = LocalDate.of(2025, 8, 15);
+    private HolidayRegions regions;
+    private final HolidayRegions builtIn = HolidayRegions.Default();
+
+    @Setup
+    public void Setup() throws IOException {
+        StringBuilder directory = new StringBuilder(PLACES * 24);
+        for (int i = 0; i < PLACES; i++) {
+            directory.append("09").append(100 + i / 100).append(String.format("%03d", i % 1000)).append(" | Ort ").append(i).append('\n');
+        }
+        regions = HolidayRegions.Default().With(HolidayRegions.Load(new StringReader(directory.toString())));
+    }
+
+    @Benchmark
+    public boolean InheritedOnly() {
+        return regions.IsHoliday(assumptionDay, "09100005");
+    }
+
+    @Benchmark
+    public boolean LocalHoliday() {
+        return regions.IsHoliday(assumptionDay, "09761000");
+    }
+
+    @Benchmark
+    public boolean ExcludedHoliday() {
+        return regions.IsHoliday(assumptionDay, "09564000");
+    }
+
+    // Not in the built-in directory: resolved through the code prefixes of the rules
+    @Benchmark
+    public boolean UnlistedPlace() {
+        return builtIn.IsHoliday(assumptionDay, "09189139");
+    }
+}
@@ -0,0 +1,119 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       SchedulerBenchmark
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JMH benchmark of the job scheduling: next fire time of a cron
+| schedule on working days and of the first working day of the
+| month, and one simulated day of the HolidayScheduler with 10,000
+| jobs on a virtual clock, one RunPending() per minute.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    private static final int JOBS = 10_000;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+    private static final LocalDateTime AFTER = LocalDateTime.of(2025, 12, 23, 7, 0);
+
+    private final JobSchedule cron = JobSchedule.Parse("0 6 * * 1-5 skip", FederalState.BY);
+    private final JobSchedule shifted = JobSchedule.Parse("0 6 24-26 12 * next", FederalState.BY);
+    private final JobSchedule workday = JobSchedule.Parse("workday 1 07:00", FederalState.BY);
+
+    private VirtualClock clock;
+    private HolidayScheduler scheduler;
+    private long fired;
+
+    @Setup
+    public void Setup() {
+        clock = new VirtualClock(AFTER.atZone(ZONE).toInstant());
+        scheduler = new HolidayScheduler(clock, Runnable::run, 1000, 512);
+        FederalState[] states = FederalState.values();
+        for (int i = 0; i < JOBS; i++) {
+            scheduler.Schedule("job" + i, JobSchedule.Parse((i % 60) + " " + (i % 24) + " * * 1-5", states[i % states.length]), () -> fired++);
+        }
+        scheduler.RunPending();
+    }
+
+    @Benchmark
+    public LocalDateTime NextCron() {
+        return cron.GetNextFire(AFTER);
+    }
+
+    @Benchmark
+    public LocalDateTime NextShifted() {
+        return shifted.GetNextFire(AFTER);
+    }
+
+    @Benchmark
+    public LocalDateTime NextWorkday() {
+        return workday.GetNextFire(AFTER);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long OneDay() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            clock.now = clock.now.plusSeconds(60);
+            scheduler.RunPending();
+        }
+        return fired;
+    }
+
+    private static final class VirtualClock extends Clock {
+        Instant now;
+
+        VirtualClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*-----------------------------------------------------------------+
+| Class:       LoadTest
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Local load test for the HolidayServer. Runs as a single source
+| file, no build needed:
+|
+|   java scripts/LoadTest.java [baseUrl] [seconds] [clients] [etag]
+|
+| Each client sends GET requests in a loop, cycling through year
+| lists, next, range and is-holiday URLs. With "etag" the client
+| repeats the ETag it got for a URL as If-None-Match. Prints
+| requests per second and the p50/p99/max latency.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadTest {
+
+    private static final String[] STATES = {"BW", "BY", "BE", "BB", "HB", "HH", "HE", "MV", "NI", "NW", "RP", "SL", "SN", "ST", "SH", "TH"};
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/holidays";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        boolean useEtag = args.length > 3 && args[3].equals("etag");
+
+        List<URI> uris = new ArrayList<>();
+        for (int year = 2020; year <= 2030; year++) {
+            for (String state : STATES) {
+                uris.add(URI.create(baseUrl + "/" + year + "?state=" + state));
+                uris.add(URI.create(baseUrl + "/is?date=" + year + "-10-31&state=" + state));
+            }
+            uris.add(URI.create(baseUrl + "/" + year + "?types=0,1"));
+        }
+        uris.add(URI.create(baseUrl + "/next?count=20&state=BY"));
+        uris.add(URI.create(baseUrl + "/range?from=2000-01-01&to=2049-12-31&state=NW&types=0,1"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            threads[c] = new Thread(() -> {
+                long[] own = new long[1 << 16];
+                int count = 0;
+                int next = id;
+                Map<URI, String> etags = new HashMap<>();
+                while (System.nanoTime() < end) {
+                    URI uri = uris.get(next++ % uris.size());
+                    HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+                    String etag = etags.get(uri);
+                    if (etag != null) {
+                        request.header("If-None-Match", etag);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200 && response.statusCode() != 304) {
+                            errors.incrementAndGet();
+                        } else if (useEtag) {
+                            response.headers().firstValue("ETag").ifPresent(value -> etags.put(uri, value));
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == own.length) {
+                        own = Arrays.copyOf(own, own.length * 2);
+                    }
+                    own[count++] = System.nanoTime() - start;
+                }
+                latencies[id] = own;
+                counts[id] = count;
+            });
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, position, counts[c]);
+            position += counts[c];
+        }
+        Arrays.sort(all);
+        System.out.printf("%d clients, %d s, %d URLs%s%n", clients, seconds, uris.size(), useEtag ? ", If-None-Match" : "");
+        System.out.printf("requests:  %d (%d errors)%n", total, errors.get());
+        System.out.printf("req/s:     %.0f%n", total / (double) seconds);
+        if (total > 0) {
+            System.out.printf("p50:       %.3f ms%n", all[(int) (total * 0.50)] / 1e6);
+            System.out.printf("p99:       %.3f ms%n", all[Math.min(total - 1, (int) (total * 0.99))] / 1e6);
+            System.out.printf("max:       %.3f ms%n", all[total - 1] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*-----------------------------------------------------------------+
+| Class:       RangeCheck
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Checks that the sized streams of GetHolidaysBetween report the
+| number of holidays they deliver, sequential and parallel, over
+| ranges where the number of holidays per year changes (2017 -
+| 2019: Reformationstag, Frauentag, Weltkindertag). Runs as a
+| single source file against the compiled classes:
+|
+|   mvn -B -q compile
+|   java -cp target/classes scripts/RangeCheck.java
+|
+| Exits with 1 and prints the ranges that do not match.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.Iterator;
+
+import CalculateHolidays.CalculateHolidays;
+
+public class RangeCheck {
+
+    private static final LocalDate[][] RANGES = {
+        {LocalDate.of(1950, 1, 1), LocalDate.of(2030, 12, 31)},
+        {LocalDate.of(2016, 6, 1), LocalDate.of(2019, 12, 31)},
+        {LocalDate.of(2017, 1, 1), LocalDate.of(2019, 1, 1)},
+        {LocalDate.of(2018, 3, 8), LocalDate.of(2018, 3, 8)},
+        {LocalDate.of(1901, 1, 1), LocalDate.of(2500, 12, 31)},
+    };
+
+    public static void main(String[] args) {
+        CalculateHolidays calculator = new CalculateHolidays(2025);
+        int failures = 0;
+        for (LocalDate[] range : RANGES) {
+            long delivered = 0;
+            for (Iterator<?> entries = calculator.GetHolidaysBetween(range[0], range[1]).iterator(); entries.hasNext(); entries.next()) {
+                delivered++;
+            }
+            long counted = calculator.GetHolidaysBetween(range[0], range[1]).count();
+            long parallel = calculator.GetHolidaysBetween(range[0], range[1]).parallel().count();
+            int array = calculator.GetHolidaysBetween(range[0], range[1]).parallel().toArray().length;
+            boolean ok = delivered == counted && delivered == parallel && delivered == array;
+            System.out.println((ok ? "ok   " : "FAIL ") + range[0] + " - " + range[1] + ": " + delivered
+                + " delivered, count " + counted + ", parallel " + parallel + ", toArray " + array);
+            if (!ok) {
+                failures++;
+            }
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,27 @@
+#!/bin/sh
+# Builds the jar, starts the HolidayServer on a free local port and runs LoadTest against it.
+#
+#   scripts/loadtest.sh [seconds] [clients] [etag]
+#
+# Java 21 or newer runs the server on virtual threads.
+set -e
+cd "$(dirname "$0")/.."
+
+SECONDS_TO_RUN=${1:-10}
+CLIENTS=${2:-32}
+PORT=${PORT:-18080}
+
+mvn -B -q package -DskipTests
+java -jar target/calculate-holidays-*.jar "$PORT" 127.0.0.1 &
+SERVER=$!
+trap 'kill $SERVER 2>/dev/null' EXIT
+
+# Wait until the server answers
+for i in 1 2 3 4 5 6 7 8 9 10; do
+    if curl -s -o /dev/null "http://127.0.0.1:$PORT/holidays/2024"; then
+        break
+    fi
+    sleep 0.5
+done
+
+java scripts/LoadTest.java "http://127.0.0.1:$PORT/holidays" "$SECONDS_TO_RUN" "$CLIENTS" "$3"
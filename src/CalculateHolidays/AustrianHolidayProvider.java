@@ -0,0 +1,36 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       AustrianHolidayProvider
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The Austrian holidays from holidays-at.rules, the nine federal
+| states as regions.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public final class AustrianHolidayProvider extends RuleFileHolidayProvider {
+
+    public AustrianHolidayProvider() {
+        super("AT", "Österreich", "holidays-at.rules",
+            "B", "Burgenland",
+            "K", "Kärnten",
+            "NOE", "Niederösterreich",
+            "OOE", "Oberösterreich",
+            "S", "Salzburg",
+            "ST", "Steiermark",
+            "T", "Tirol",
+            "V", "Vorarlberg",
+            "W", "Wien");
+    }
+}
@@ -20,24 +20,20 @@ package CalculateHolidays;
 | written permission from the original author(s).
 +----------------------------------------------------------------*/
 
-import java.time.DayOfWeek;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.Month;
-import java.time.format.DateTimeFormatter;
-import java.time.format.TextStyle;
-import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public class CalculateHolidays {
 
+    // Years up to 1900 are replaced by the current year in the constructor
+    static final int MIN_YEAR = 1901;
+
     private int currentYear;
-    private String dateOfEaster;
-    private String regionsfilter = null;
-    private List<String> holidayTypeFilter = new ArrayList<>();
+    private HolidayFilter filter = HolidayFilter.ALL;
 
     // Setter
 
@@ -68,15 +64,18 @@ public class CalculateHolidays {
      */
     public boolean SetRegionFilter(String region) {
         if (region != null && region.length() == 2) {
-            this.regionsfilter = this.GetFederalState(region.toUpperCase());
+            FederalState state = FederalState.Parse(region);
+            this.filter = state == null ? this.filter.WithoutStates() : this.filter.WithoutStates().WithStates(state);
             return true;
         }
         else if (region != null && region.length() > 2) {
-            this.regionsfilter = region;
+            FederalState state = FederalState.Parse(region);
+            int stateMask = state == null ? HolidayFilter.UNKNOWN_STATE : state.GetMask();
+            this.filter = this.filter.WithMasks(this.filter.GetTypeMask(), stateMask);
             return true;
         }
         else if (region != null) {
-            this.regionsfilter = null;
+            this.filter = this.filter.WithoutStates();
             return true;
         }
         return false;
@@ -97,588 +96,394 @@ public class CalculateHolidays {
      * 
      */
     public void AddHolidayTypeFilter(int type) {
-        if (type > -1 && !this.holidayTypeFilter.contains(GetHolidayType(type))) {
-            this.holidayTypeFilter.add(GetHolidayType(type));
+        HolidayType holidayType = HolidayType.FromValue(type);
+        if (holidayType != null) {
+            this.filter = this.filter.WithTypes(holidayType);
         }
     }
     public void AddHolidayTypeFilter(List<Integer> type) {
         for (int value : type) {
-            if (value > -1 && !this.holidayTypeFilter.contains(GetHolidayType(value))) {
-                this.holidayTypeFilter.add(GetHolidayType(value));
-            }
+            this.AddHolidayTypeFilter(value);
         }
     }
     /**
      * Resets the filter for the holidays
      */
     public void ResetHolidayTypeFilter() {
-        this.holidayTypeFilter = new ArrayList<>();
+        this.filter = this.filter.WithoutTypes();
+    }
+
+    /**
+     * Replaces type and region filter at once.
+     * 
+     * @param filter
+     */
+    public void SetFilter(HolidayFilter filter) {
+        this.filter = filter == null ? HolidayFilter.ALL : filter;
+    }
+
+    public HolidayFilter GetFilter() {
+        return this.filter;
     }
 
 
     // Constructor
     public CalculateHolidays(int year) {
-        if (year > 1900) {
+        if (year >= MIN_YEAR) {
             this.currentYear = year;
         } else {
             this.currentYear = LocalDate.now().getYear();
         }
-        CalculateEaster();
-    }
-
-    private String ConvertDateToGermanFormat(String date) {
-        // Parse the input date string into a LocalDate object
-        LocalDate localDate = LocalDate.parse(date);
-        // Get the day of the week in German
-        String dayOfWeek = localDate.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.GERMAN);
-        // Format the date in German style (dd.MM.yyyy)
-        String formattedDate = localDate.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
-        // Combine the day of the week and the formatted date
-        String result = dayOfWeek + ", " + formattedDate;
-        return result;
     }
 
     public HolidayEntry GetNewYearsDay() {
-        String sdate = LocalDate.of(this.currentYear, 1, 1).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Neujahrstag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("NewYearsDay");
     }
 
     public HolidayEntry GetHolyThreeKings() {
-        String sdate = LocalDate.of(this.currentYear, 1, 6).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BW"));
-        regions.add(GetFederalState("BY"));
-        regions.add(GetFederalState("ST"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Heilige drei Könige", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("HolyThreeKings");
     }
 
     public HolidayEntry GetValentinesDay() {
-        String sdate = LocalDate.of(this.currentYear, 2, 14).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Valentinstag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("ValentinesDay");
     }
 
     public HolidayEntry GetRoseMonday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(48).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Rosenmontag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("RoseMonday");
     }
 
     public HolidayEntry GetShroveTuesday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(47).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Faschingsdienstag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("ShroveTuesday");
     }
 
     public HolidayEntry GetAshWednesday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(46).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Aschermittwoch", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("AshWednesday");
     }
 
+    /**
+     * @return The holiday of the current year, null if not in force that year (before 2019). See GetHoliday.
+     */
     public HolidayEntry GetInternationalWomensDay() {
-        String sdate = LocalDate.of(this.currentYear, 3, 8).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BE"));
-        regions.add(GetFederalState("MV"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Internationaler Frauentag", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("InternationalWomensDay");
     }
 
     public HolidayEntry GetPalmSunday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(7).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "PalmSonntag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("PalmSunday");
     }
 
     public HolidayEntry GetMaundyThursday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(3).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "GrünDonnerstag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("MaundyThursday");
     }
 
     public HolidayEntry GetGoodFriday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(2).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "KarFreitag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("GoodFriday");
     }
 
     public HolidayEntry GetHolySaturday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).minusDays(1).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "KarSamstag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("HolySaturday");
     }
 
     public HolidayEntry GetEasterSunday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Ostersonntag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("EasterSunday");
     }
 
     public HolidayEntry GetEasterMonday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).plusDays(1).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Ostermontag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("EasterMonday");
     }
 
     public HolidayEntry GetStartOfSummerTime() {
-        String sdate = LocalDate.of(this.currentYear, 3, 1).with(DayOfWeek.SUNDAY)
-            .withDayOfMonth(LocalDate.of(this.currentYear, 3, 1).lengthOfMonth()).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Beginn der Sommerzeit", this.GetHolidayType(3), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("StartOfSummerTime");
     }
 
     public HolidayEntry GetLaborDay() {
-        String sdate = LocalDate.of(this.currentYear, 5, 1).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Tag der Arbeit", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("LaborDay");
     }
 
     public HolidayEntry GetAnniversaryOfTheLiberationFromNationalSocialism() {
-        String sdate = LocalDate.of(this.currentYear, 5, 8).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BE"));
-        regions.add(GetFederalState("BB"));
-        regions.add(GetFederalState("HB"));
-        regions.add(GetFederalState("MV"));
-        regions.add(GetFederalState("TH"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Jahrestag der Befreiung vom Nationalsozialismus", this.GetHolidayType(2), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("AnniversaryOfTheLiberation");
     }
 
     public HolidayEntry GetAscensionOfChrist() {
-        String sdate = LocalDate.parse(this.dateOfEaster).plusDays(39).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Christi Himmelfahrt & Vatertag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("AscensionOfChrist");
     }
 
     public HolidayEntry GetMothersDay() {
-        String sdate = LocalDate.of(currentYear, Month.MAY, 1) // 1. Mai des aktuellen Jahres
-        .with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)) // Nächster oder aktueller Sonntag
-        .with(TemporalAdjusters.next(DayOfWeek.SUNDAY)).toString(); // 2. Sonntag im Mai
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Muttertag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("MothersDay");
     }
 
     public HolidayEntry GetPentecostSunday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).plusDays(49).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Pfingstsonntag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("PentecostSunday");
     }
 
     public HolidayEntry GetWhitMonday() {
-        String sdate = LocalDate.parse(this.dateOfEaster).plusDays(50).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Pfingstmontag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("WhitMonday");
     }
 
     public HolidayEntry GetCorpusChristi() {
-        String sdate = LocalDate.parse(this.dateOfEaster).plusDays(60).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BW"));
-        regions.add(GetFederalState("BY"));
-        regions.add(GetFederalState("HE"));
-        regions.add(GetFederalState("NW"));
-        regions.add(GetFederalState("RP"));
-        regions.add(GetFederalState("SL"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Fronleichnam", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("CorpusChristi");
     }
 
     public HolidayEntry GetHighPeaceFestival() {
-        String sdate = LocalDate.of(this.currentYear, 8, 8).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BW"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Hohes Friedensfest", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("HighPeaceFestival");
     }
 
     public HolidayEntry GetAssumptionDay() {
-        String sdate = LocalDate.of(this.currentYear, 8, 15).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BY"));
-        regions.add(GetFederalState("SL"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Maria Himmelfahrt", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("AssumptionDay");
     }
 
+    /**
+     * @return The holiday of the current year, null if not in force that year (before 2019). See GetHoliday.
+     */
     public HolidayEntry GetWorldChildrensDay() {
-        String sdate = LocalDate.of(this.currentYear, 9, 20).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("TH"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Weltkindertag", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("WorldChildrensDay");
     }
 
+    /**
+     * @return The holiday of the current year, null if not in force that year (before 1990). See GetHoliday.
+     */
     public HolidayEntry GetDayOfGermanUnity() {
-        String sdate = LocalDate.of(this.currentYear, 10, 3).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Tag der deutschen Einheit", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("DayOfGermanUnity");
     }
 
     public HolidayEntry GetEndOfSummerTime() {
-        String sdate = LocalDate.of(this.currentYear, 10, 1).with(DayOfWeek.SUNDAY)
-            .withDayOfMonth(LocalDate.of(this.currentYear, 10, 1).lengthOfMonth()).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Ende der Sommerzeit", this.GetHolidayType(3), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("EndOfSummerTime");
     }
 
     public HolidayEntry GetReformationDay() {
-        String sdate = LocalDate.of(this.currentYear, 10, 31).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BB"));
-        regions.add(GetFederalState("HB"));
-        regions.add(GetFederalState("HH"));
-        regions.add(GetFederalState("MV"));
-        regions.add(GetFederalState("NI"));
-        regions.add(GetFederalState("SN"));
-        regions.add(GetFederalState("ST"));
-        regions.add(GetFederalState("SH"));
-        regions.add(GetFederalState("TH"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Reformationstag", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("ReformationDay");
     }
 
     public HolidayEntry GetHalloween() {
-        String sdate = LocalDate.of(this.currentYear, 10, 31).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Halloween", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("Halloween");
     }
 
     public HolidayEntry GetAllSaintsDay() {
-        String sdate = LocalDate.of(this.currentYear, 11, 1).toString();
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("BW"));
-        regions.add(GetFederalState("BY"));
-        regions.add(GetFederalState("NW"));
-        regions.add(GetFederalState("RP"));
-        regions.add(GetFederalState("SL"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Allerheiligen", this.GetHolidayType(1), regions);
-        return holidayEntry;
+        return this.GetRuleEntry("AllSaintsDay");
     }
 
     public HolidayEntry GetSaintMartin() {
-        String sdate = LocalDate.of(this.currentYear, 11, 11).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Sankt Martin", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("SaintMartin");
     }
 
     public HolidayEntry GetMemorialDay() {
-        String sdate = LocalDate.now().withMonth(11).with(TemporalAdjusters.lastInMonth(DayOfWeek.SUNDAY)).toString(); 
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Volkstrauertag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("MemorialDay");
     }
 
     public HolidayEntry GetDayOfPrayerAndRepentance() {
-        LocalDate ld = LocalDate.of(this.currentYear, 11, 23);
-        String sdate = "";
-        if (ld.getDayOfWeek() == DayOfWeek.WEDNESDAY) {
-            sdate = ld.toString();
-        }
-        else {
-            sdate = ld.with(TemporalAdjusters.previous(DayOfWeek.WEDNESDAY)).toString();
-        }
-        List<String> regions = new ArrayList<>();
-        regions.add(GetFederalState("SN"));
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Buß- und Bettag", this.GetHolidayType(1), regions);
-        return holidayEntry;
-    }
-
-    private LocalDate CalculateFourthAdvent() {
-        LocalDate christmasEve = LocalDate.of(this.currentYear, 12, 24);
-        if (christmasEve.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            return christmasEve;
-        } else {
-            return christmasEve.with(TemporalAdjusters.previous(DayOfWeek.SUNDAY));
-        }
+        return this.GetRuleEntry("DayOfPrayerAndRepentance");
     }
 
     public HolidayEntry GetSundayOfTheDead() {
-        String sdate = LocalDate.parse(this.CalculateFourthAdvent().toString()).minusWeeks(4).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Totensonntag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("SundayOfTheDead");
     }
 
     public HolidayEntry GetFirstAdvent() {
-        String sdate = LocalDate.parse(this.CalculateFourthAdvent().toString()).minusWeeks(3).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Erster Advent", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("FirstAdvent");
     }
 
     public HolidayEntry GetNicholasDay() {
-        String sdate = LocalDate.of(this.currentYear, 12, 6).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Nikolaustag", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("NicholasDay");
     }
 
     public HolidayEntry GetSecondAdvent() {
-        String sdate = LocalDate.parse(this.CalculateFourthAdvent().toString()).minusWeeks(2).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Zweiter Advent", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("SecondAdvent");
     }
 
     public HolidayEntry GetThirdAdvent() {
-        String sdate = LocalDate.parse(this.CalculateFourthAdvent().toString()).minusWeeks(1).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Dritter Advent", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("ThirdAdvent");
     }
 
     public HolidayEntry GetFourthAdvent() {
-        String sdate = LocalDate.parse(this.CalculateFourthAdvent().toString()).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Vierter Advent", this.GetHolidayType(2), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("FourthAdvent");
     }
 
     public HolidayEntry GetChristmasEve() {
-        String sdate = LocalDate.of(this.currentYear, 12, 24).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Heiligabend", this.GetHolidayType(4), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("ChristmasEve");
     }
 
     public HolidayEntry GetFirstChristmasDay() {
-        String sdate = LocalDate.of(this.currentYear, 12, 25).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Erster Weihnachtstag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("FirstChristmasDay");
     }
 
     public HolidayEntry GetSecondChristmasDay() {
-        String sdate = LocalDate.of(this.currentYear, 12, 26).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Zweiter Weihnachtstag", this.GetHolidayType(0), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("SecondChristmasDay");
     }
 
     public HolidayEntry GetSylvester() {
-        String sdate = LocalDate.of(this.currentYear, 12, 31).toString();
-        HolidayEntry holidayEntry = new HolidayEntry(sdate, ConvertDateToGermanFormat(sdate), "Silvester", this.GetHolidayType(5), new ArrayList<>());
-        return holidayEntry;
+        return this.GetRuleEntry("Sylvester");
     }
 
-    public ArrayList<HolidayEntry> GetHolidaysFullList() {
-        ArrayList<HolidayEntry> holidayList = new ArrayList<>();
-        holidayList.add(this.GetNewYearsDay());
-        holidayList.add(this.GetHolyThreeKings());
-        holidayList.add(this.GetValentinesDay());
-        holidayList.add(this.GetRoseMonday());
-        holidayList.add(this.GetShroveTuesday());
-        holidayList.add(this.GetAshWednesday());
-        holidayList.add(this.GetInternationalWomensDay());
-        holidayList.add(this.GetPalmSunday());
-        holidayList.add(this.GetMaundyThursday());
-        holidayList.add(this.GetGoodFriday());
-        holidayList.add(this.GetHolySaturday());
-        holidayList.add(this.GetEasterSunday());
-        holidayList.add(this.GetEasterMonday());
-        holidayList.add(this.GetStartOfSummerTime());
-        holidayList.add(this.GetLaborDay());
-        holidayList.add(this.GetAnniversaryOfTheLiberationFromNationalSocialism());
-        holidayList.add(this.GetAscensionOfChrist());
-        holidayList.add(this.GetMothersDay());
-        holidayList.add(this.GetPentecostSunday());
-        holidayList.add(this.GetWhitMonday());
-        holidayList.add(this.GetCorpusChristi());
-        holidayList.add(this.GetHighPeaceFestival());
-        holidayList.add(this.GetAssumptionDay());
-        holidayList.add(this.GetWorldChildrensDay());
-        holidayList.add(this.GetDayOfGermanUnity());
-        holidayList.add(this.GetEndOfSummerTime());
-        holidayList.add(this.GetReformationDay());
-        holidayList.add(this.GetAllSaintsDay());
-        holidayList.add(this.GetSaintMartin());
-        holidayList.add(this.GetMemorialDay());
-        holidayList.add(this.GetDayOfPrayerAndRepentance());
-        holidayList.add(this.GetSundayOfTheDead());
-        holidayList.add(this.GetFirstAdvent());
-        holidayList.add(this.GetSecondAdvent());
-        holidayList.add(this.GetThirdAdvent());
-        holidayList.add(this.GetFourthAdvent());
-        holidayList.add(this.GetNicholasDay());
-        holidayList.add(this.GetChristmasEve());
-        holidayList.add(this.GetFirstChristmasDay());
-        holidayList.add(this.GetSecondChristmasDay());
-        holidayList.add(this.GetSylvester());
-
-
-
-        Collections.sort(holidayList, new Comparator<HolidayEntry>() {
-            @Override
-            public int compare(HolidayEntry holiday1, HolidayEntry holiday2) {
-                return holiday1.GetSortDate().compareTo(holiday2.GetSortDate());
-            }
-        });
-
-        if (this.holidayTypeFilter.size() > 0 || (this.regionsfilter != null && !this.regionsfilter.isEmpty())) {
-            // holidayTypeFilter
-            for (int i=holidayList.size() - 1; i >= 0; i--) {
-                if (this.holidayTypeFilter.size() > 0) {
-                    if (!this.holidayTypeFilter.contains(holidayList.get(i).GetHolidayType())) {
-                        holidayList.remove(i);
-                        continue;
-                    }
-                }
-                if (this.regionsfilter != null && !this.regionsfilter.isEmpty() && holidayList.get(i).GetRegions().size() > 0) {
-                    if (!holidayList.get(i).GetRegions().contains(this.regionsfilter)) {
-                        holidayList.remove(i);
-                    }
-                }
-            }
+    /**
+     * @param id Id of a rule in the rule file, e.g. "WorldChildrensDay"
+     * @return The holiday of the current year, empty if not in force that year. Rules loaded with
+     *         HolidayRuleSet.SetActive can limit any holiday to years, so this is the null-safe form of the getters.
+     * @throws IllegalArgumentException if neither the active nor the built-in rules have the id
+     */
+    public Optional<HolidayEntry> GetHoliday(String id) {
+        if (HolidayRuleSet.Active().IndexOf(id) < 0 && HolidayRuleSet.Default().IndexOf(id) < 0) {
+            throw new IllegalArgumentException("Unknown holiday: " + id);
         }
-
-        return holidayList;
-
+        return Optional.ofNullable(this.GetRuleEntry(id));
     }
 
-    public ArrayList<HolidayEntry> GetFuturedHolidaysList(int count) { // int = 0 gives everything until the end of the year.
-        ArrayList<HolidayEntry> holidayList = this.GetHolidaysFullList();
-        for (int i=holidayList.size() - 1; i >= 0; i-- ) {
-            LocalDate compareDate = LocalDate.parse(holidayList.get(i).GetSortDate());
-            if (compareDate.isBefore(LocalDate.now())) {
-                holidayList.remove(i);
-            }
+    /**
+     * Evaluates a single rule of the active HolidayRuleSet for the current year, with the regions of that year.
+     * Falls back to the built-in rules if the active set does not contain the id.
+     * Returns null if the holiday did not exist in the year, e.g. GetWorldChildrensDay() before 2019.
+     */
+    private HolidayEntry GetRuleEntry(String id) {
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        HolidayRuleSet rules = HolidayRuleSet.Active();
+        int index = rules.IndexOf(id);
+        if (index < 0) {
+            rules = HolidayRuleSet.Default();
+            index = rules.IndexOf(id);
         }
+        HolidayEntry entry = rules.Evaluate(index, this.currentYear);
+        HolidayMetrics.Record(HolidayOperation.SINGLE_HOLIDAY, started, allocated);
+        return entry;
+    }
 
-        if (count != 0 && holidayList.size() > count) {
-            for (int i=holidayList.size() - 1; i >= count; i-- ) {
-                holidayList.remove(i);
-            }
-        }
-        else if (count != 0 && holidayList.size() < count) {    // Filling up the ArrayList
-            CalculateHolidays nch = new CalculateHolidays(currentYear + 1);
-            ArrayList<HolidayEntry> FillUpList = nch.GetFuturedHolidaysList(0);
-            nch = null; // The object is being cleaned up to release resources.
-
-            for (int i = 1; i < FillUpList.size(); i++) {       // Dirty - For some reason, this ArrayList has one extra row (from the previous year).
-                holidayList.add(FillUpList.get(i));
-                if (holidayList.size() == count) {
-                    break;
-                }
-            }
-        }
+    /**
+     * Builds the list of the current year sorted by date from the active HolidayRuleSet.
+     * Only holidays passing the filter are calculated.
+     * Used by HolidayYearSnapshot to fill the HolidayCache and by GetHolidaysFullList while the cache is disabled.
+     */
+    ArrayList<HolidayEntry> BuildHolidayList(HolidayFilter filter) {
+        return HolidayRuleSet.Active().Evaluate(this.currentYear, filter);
+    }
+
+    /**
+     * @return Holidays of the current year that pass the filter, sorted by date. Local holidays of single places
+     *         (e.g. the Augsburg High Peace Festival) are never part of it, not even without a filter: they come from
+     *         their getter or HolidayRegions.
+     */
+    public ArrayList<HolidayEntry> GetHolidaysFullList() {
+        return this.GetHolidaysFullList(this.filter);
+    }
 
+    /**
+     * Returns the holidays of the current year that pass the given filter. The filters set on this instance are ignored.
+     * With the HolidayCache enabled the filter runs over the shared snapshot of the year, otherwise
+     * only the matching holidays are calculated. See HolidayCalculator.GetHolidays.
+     * 
+     * @param filter
+     * @return Holidays sorted by date
+     */
+    public ArrayList<HolidayEntry> GetHolidaysFullList(HolidayFilter filter) {
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        ArrayList<HolidayEntry> holidayList = new ArrayList<>(HolidayCalculator.Create().GetHolidays(this.currentYear, filter));
+        HolidayMetrics.Record(HolidayOperation.FULL_LIST, started, allocated);
         return holidayList;
     }
 
+    public ArrayList<HolidayEntry> GetFuturedHolidaysList(int count) { // int = 0 gives everything until the end of the year.
+        return this.GetFuturedHolidaysList(count, Clock.systemDefaultZone());
+    }
 
-    /*---------------------------------------------------------------------
-    | The calculation of the Easter date is based on the Metonic cycle, 
-    | which repeats approximately every 19 years. This cycle corresponds 
-    | to the phases of the moon. Since the church tradition aims for the 
-    | first Sunday in spring, it is necessary to calculate the phase of 
-    | the moon in order to determine both the arrival of spring and the 
-    | first Sunday.
-    +---------------------------------------------------------------------- */
-    private void CalculateEaster() {
-        int a = this.currentYear % 19;
-        int b = this.currentYear / 100;
-        int c = this.currentYear % 100;
-        int d = b / 4;
-        int e = b % 4;
-        int f = (b + 8) / 25;
-        int g = (b - f + 1) / 3;
-        int h = (19 * a + b - d - g + 15) % 30;
-        int i = c / 4;
-        int k = c % 4;
-        int l = (32 + 2 * e + 2 * i - h - k) % 7;
-        int m = (a + 11 * h + 22 * l) / 451;
-        int month = (h + l - 7 * m + 114) / 31;
-        int day = ((h + l - 7 * m + 114) % 31) + 1;
-
-        this.dateOfEaster = LocalDate.of(this.currentYear, month, day).toString();
-    }
-
-    private String GetHolidayType(int holidayTypeValue) {
-        switch (holidayTypeValue) {
-            case 0:
-                return "Gesetzlicher Feiertag";
-            case 1:
-                return "Regionaler Feiertag";
-            case 2:
-                return "Gedenktag";
-            case 3:
-                return "Ereignis";
-            case 4:
-                return "Vorweihnachtstag";
-            case 5:
-                return "Jahresende";
-            default:
-                return null;
-        }
+    /**
+     * Returns the holidays from today on, but not before January 1st of the current year.
+     * The filters of this instance are applied to all years.
+     * 
+     * @param count Number of holidays. If the current year has not enough, the following years are used.
+     *              0 gives everything until the end of the current year.
+     * @param clock Source of "today"
+     * @return Holidays sorted by date
+     */
+    public ArrayList<HolidayEntry> GetFuturedHolidaysList(int count, Clock clock) {
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        ArrayList<HolidayEntry> holidayList = this.CollectFuturedHolidays(count, clock);
+        HolidayMetrics.Record(HolidayOperation.FUTURED_LIST, started, allocated);
+        return holidayList;
     }
 
-    private String GetFederalState(String fs) {
-        switch (fs) {
-            case "BW":
-                return "Baden-Württemberg";
-            case "BY":
-                return "Bayern";
-            case "BE":
-                return "Berlin";
-            case "BB":
-                return "Brandenburg";
-            case "HB":
-                return "Bremen";
-            case "HH":
-                return "Hamburg";
-            case "HE":
-                return "Hessen";
-            case "MV":
-                return "Mecklenburg-Vorpommern";
-            case "NI":
-                return "Niedersachsen";
-            case "NW":
-                return "Nordrhein-Westfalen";
-            case "RP":
-                return "Rheinland-Pfalz";
-            case "SL":
-                return "Saarland";
-            case "SN":
-                return "Sachsen";
-            case "ST":
-                return "Sachsen-Anhalt";
-            case "SH":
-                return "Schleswig-Holstein";
-            case "TH":
-                return "Thüringen";
-            default:
-                return null;
+    private ArrayList<HolidayEntry> CollectFuturedHolidays(int count, Clock clock) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate start = today.getYear() < this.currentYear ? LocalDate.of(this.currentYear, 1, 1) : today;
+        HolidayCursor cursor = new HolidayCursor(start, this.filter);
+        ArrayList<HolidayEntry> holidayList = new ArrayList<>();
+        if (count == 0) {
+            while (cursor.hasNext()) {
+                HolidayEntry entry = cursor.next();
+                if (entry.GetLocalDate().getYear() > this.currentYear) {
+                    break;
+                }
+                holidayList.add(entry);
+            }
+            return holidayList;
+        }
+        while (holidayList.size() < count && cursor.hasNext()) {
+            holidayList.add(cursor.next());
         }
+        return holidayList;
     }
-}
 
-class HolidayEntry {
-    private String _sortDate;
-    private String _date;
-    private String _nameOfHoliday;
-    private String _holidayType;
-    private List<String> _regions;
 
-    public HolidayEntry(String sortDate, String date, String nameOfHoliday, String holidayType, List<String> regions) {
-        this._sortDate = sortDate;
-        this._date = date;
-        this._nameOfHoliday = nameOfHoliday;
-        this._holidayType = holidayType;
-        this._regions = regions;
+    /**
+     * Returns the holidays between two dates as a lazy stream. The type and region filters of
+     * this instance are applied as they are set at the time of the call.
+     * Each year is calculated (or taken from the HolidayCache) only when the stream reaches it,
+     * so short-circuiting operations like limit() or findFirst() stop early.
+     * The stream is sized if no filter is set and splits by years for parallel processing.
+     * 
+     * @param from First day, included
+     * @param to Last day, included
+     * @return Stream of the holidays sorted by date
+     */
+    public Stream<HolidayEntry> GetHolidaysBetween(LocalDate from, LocalDate to) {
+        return HolidayCalculator.Create().GetHolidaysBetween(from, to, this.filter);
     }
 
-    // Gettermethods
-    public String GetSortDate() {
-        return _sortDate;
+    /**
+     * Checks whether a national or regional holiday falls on the date in the given state.
+     * Runs in constant time against the cached index of the year.
+     * 
+     * @param date
+     * @param region Two-letter code or full name of the state. null checks nationwide holidays only.
+     * @return True if the date is a "Gesetzlicher Feiertag" or "Regionaler Feiertag" in the region.
+     */
+    public static boolean IsHoliday(LocalDate date, String region) {
+        return IsHoliday(date, FederalState.Parse(region));
     }
 
-    public String GetDate() {
-        return _date;
+    public static boolean IsHoliday(LocalDate date, FederalState state) {
+        return HolidayCalculator.Create().IsHoliday(date, state);
     }
 
-    public String GetNameOfHoliday() {
-        return _nameOfHoliday;
+    /**
+     * Checks whether a holiday of one of the given types falls on the date in the given state.
+     * 
+     * @param date
+     * @param region Two-letter code or full name of the state. null checks nationwide holidays only.
+     * @param types Holiday types, see AddHolidayTypeFilter
+     * @return True if at least one matching holiday falls on the date.
+     */
+    public static boolean IsHoliday(LocalDate date, String region, List<Integer> types) {
+        int typeMask = 0;
+        for (int value : types) {
+            HolidayType type = HolidayType.FromValue(value);
+            if (type != null) {
+                typeMask |= type.GetMask();
+            }
+        }
+        return HolidayCalculator.Create().IsHoliday(date, FederalState.Parse(region), typeMask);
     }
 
-    public String GetHolidayType() {
-        return _holidayType;
+    /**
+     * Returns all holidays, remembrance days and events of the date that apply to the state.
+     * 
+     * @param date
+     * @param region Two-letter code or full name of the state. null returns nationwide entries only.
+     * @return Read-only list, empty if nothing falls on the date.
+     */
+    public static List<HolidayEntry> GetHolidaysOn(LocalDate date, String region) {
+        return GetHolidaysOn(date, FederalState.Parse(region));
     }
 
-    public List<String> GetRegions() {
-        return _regions;
+    public static List<HolidayEntry> GetHolidaysOn(LocalDate date, FederalState state) {
+        return HolidayCalculator.Create().GetHolidaysOn(date, state);
     }
 }
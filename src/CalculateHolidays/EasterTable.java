@@ -0,0 +1,204 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       EasterTable
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Precomputed Easter Sundays as epoch days for a span of years.
+| Years inside the span are a single array access, years outside
+| are calculated on the fly with plain int arithmetic. The batch
+| methods fill caller-supplied arrays with Easter or all movable
+| feasts of many years, so a sweep over centuries allocates
+| nothing.
+|
+| The default table covers 1901 - 2500. Another span can be set at
+| startup with -DCalculateHolidays.easterYears=<first>-<last>.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+
+public final class EasterTable {
+
+    public static final String YEARS_PROPERTY = "CalculateHolidays.easterYears";
+    private static final int DEFAULT_SPAN = 600;
+
+    private static final EasterTable DEFAULT = LoadDefault();
+
+    private final int firstYear;
+    private final int[] easter;
+
+    private EasterTable(int firstYear, int lastYear) {
+        this.firstYear = firstYear;
+        this.easter = new int[lastYear - firstYear + 1];
+        for (int i = 0; i < easter.length; i++) {
+            easter[i] = Calculate(firstYear + i);
+        }
+    }
+
+    /**
+     * @param firstYear
+     * @param lastYear
+     * @return New table with the Easter Sundays of firstYear to lastYear (inclusive)
+     * @throws IllegalArgumentException if firstYear is before CalculateHolidays.MIN_YEAR or after lastYear
+     */
+    public static EasterTable Of(int firstYear, int lastYear) {
+        if (firstYear < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + firstYear);
+        }
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Last year " + lastYear + " is before first year " + firstYear);
+        }
+        return new EasterTable(firstYear, lastYear);
+    }
+
+    private static EasterTable LoadDefault() {
+        String span = System.getProperty(YEARS_PROPERTY);
+        if (span == null || span.isBlank()) {
+            return new EasterTable(CalculateHolidays.MIN_YEAR, CalculateHolidays.MIN_YEAR + DEFAULT_SPAN - 1);
+        }
+        String[] years = span.trim().split("\\s*-\\s*");
+        try {
+            return Of(Integer.parseInt(years[0]), Integer.parseInt(years[years.length - 1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + YEARS_PROPERTY + "=" + span, e);
+        }
+    }
+
+    /**
+     * @return The table used by the holiday rules.
+     */
+    public static EasterTable Default() {
+        return DEFAULT;
+    }
+
+    // Gettermethods
+    public int GetFirstYear() {
+        return firstYear;
+    }
+
+    public int GetLastYear() {
+        return firstYear + easter.length - 1;
+    }
+
+    public boolean Contains(int year) {
+        return year >= firstYear && year - firstYear < easter.length;
+    }
+
+    /**
+     * @param year
+     * @return Easter Sunday as epoch day. Years outside the table are calculated.
+     */
+    public int GetEasterEpochDay(int year) {
+        int offset = year - firstYear;
+        if (offset >= 0 && offset < easter.length) {
+            return easter[offset];
+        }
+        return Calculate(year);
+    }
+
+    public LocalDate GetEaster(int year) {
+        return LocalDate.ofEpochDay(GetEasterEpochDay(year));
+    }
+
+    /**
+     * Batch lookup without allocation.
+     *
+     * @param years
+     * @param target Receives the epoch day of Easter Sunday for years[i] at target[i]
+     * @throws IllegalArgumentException if target is shorter than years
+     */
+    public void GetEasterEpochDays(int[] years, int[] target) {
+        if (target.length < years.length) {
+            throw new IllegalArgumentException("Target holds " + target.length + " values, " + years.length + " needed");
+        }
+        for (int i = 0; i < years.length; i++) {
+            target[i] = GetEasterEpochDay(years[i]);
+        }
+    }
+
+    public int[] GetEasterEpochDays(int[] years) {
+        int[] target = new int[years.length];
+        GetEasterEpochDays(years, target);
+        return target;
+    }
+
+    /**
+     * Batch calculation of all movable feasts without allocation. The offsets are those of the EASTER rules
+     * of the active HolidayRuleSet, see MovableFeast.
+     *
+     * @param years
+     * @param target Receives the epoch day of feast f in years[i] at target[i * MovableFeast.Count() + f.ordinal()]
+     * @throws IllegalArgumentException if target is shorter than years.length * MovableFeast.Count()
+     */
+    public void GetMovableFeasts(int[] years, int[] target) {
+        int count = MovableFeast.Count();
+        if (target.length < years.length * count) {
+            throw new IllegalArgumentException("Target holds " + target.length + " values, " + years.length * count + " needed");
+        }
+        int[] offsets = MovableFeast.GetOffsets();
+        for (int i = 0; i < years.length; i++) {
+            int easterSunday = GetEasterEpochDay(years[i]);
+            int position = i * count;
+            for (int f = 0; f < count; f++) {
+                target[position + f] = easterSunday + offsets[f];
+            }
+        }
+    }
+
+    public int[] GetMovableFeasts(int[] years) {
+        int[] target = new int[years.length * MovableFeast.Count()];
+        GetMovableFeasts(years, target);
+        return target;
+    }
+
+    /*---------------------------------------------------------------------
+    | The calculation of the Easter date is based on the Metonic cycle,
+    | which repeats approximately every 19 years. This cycle corresponds
+    | to the phases of the moon. Since the church tradition aims for the
+    | first Sunday in spring, it is necessary to calculate the phase of
+    | the moon in order to determine both the arrival of spring and the
+    | first Sunday.
+    +---------------------------------------------------------------------- */
+    static int Calculate(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = ((h + l - 7 * m + 114) % 31) + 1;
+
+        return EpochDay(year, month, day);
+    }
+
+    /**
+     * Epoch day of a Gregorian date, same result as LocalDate.of(year, month, day).toEpochDay()
+     * but without creating a LocalDate. The date is not validated.
+     */
+    static int EpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
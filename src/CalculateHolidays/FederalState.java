@@ -0,0 +1,181 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       FederalState
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The 16 German federal states with their two-letter code and
+| full name. Each state owns one bit, so sets of states can be
+| stored as an int mask.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+public enum FederalState {
+    BW("Baden-Württemberg", 8),
+    BY("Bayern", 9),
+    BE("Berlin", 11),
+    BB("Brandenburg", 12),
+    HB("Bremen", 4),
+    HH("Hamburg", 2),
+    HE("Hessen", 6),
+    MV("Mecklenburg-Vorpommern", 13),
+    NI("Niedersachsen", 3),
+    NW("Nordrhein-Westfalen", 5),
+    RP("Rheinland-Pfalz", 7),
+    SL("Saarland", 10),
+    SN("Sachsen", 14),
+    ST("Sachsen-Anhalt", 15),
+    SH("Schleswig-Holstein", 1),
+    TH("Thüringen", 16);
+
+    private static final FederalState[] VALUES = values();
+    private static final FederalState[] BY_AGS = new FederalState[17];
+    private static final ConcurrentHashMap<Integer, List<String>> namesByMask = new ConcurrentHashMap<>();
+
+    static {
+        for (FederalState state : VALUES) {
+            BY_AGS[state.agsNumber] = state;
+        }
+    }
+
+    private final String name;
+    private final int agsNumber;    // Land part of the Amtlicher Gemeindeschlüssel
+
+    FederalState(String name, int agsNumber) {
+        this.name = name;
+        this.agsNumber = agsNumber;
+    }
+
+    // Gettermethods
+    public String GetCode() {
+        return name();
+    }
+
+    public String GetName() {
+        return name;
+    }
+
+    public int GetMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @return The two-digit state part of the Amtlicher Gemeindeschlüssel (AGS), e.g. "09" for Bayern.
+     */
+    public String GetAgsCode() {
+        return agsNumber < 10 ? "0" + agsNumber : Integer.toString(agsNumber);
+    }
+
+    /**
+     * @param ags Amtlicher Gemeindeschlüssel or any prefix of at least two digits
+     * @return The state of the first two digits or null if they are no state.
+     */
+    public static FederalState FromAgs(String ags) {
+        if (ags == null || ags.length() < 2) {
+            return null;
+        }
+        int first = ags.charAt(0) - '0';
+        int second = ags.charAt(1) - '0';
+        if (first < 0 || first > 9 || second < 0 || second > 9) {
+            return null;
+        }
+        int number = first * 10 + second;
+        return number < BY_AGS.length ? BY_AGS[number] : null;
+    }
+
+    /**
+     * Resolves a state by its two-letter code (case-insensitive) or its full name.
+     * 
+     * @param region
+     * @return The state or null if the region is unknown.
+     */
+    public static FederalState Parse(String region) {
+        if (region == null) {
+            return null;
+        }
+        if (region.length() == 2) {
+            for (FederalState state : VALUES) {
+                if (state.name().equalsIgnoreCase(region)) {
+                    return state;
+                }
+            }
+            return null;
+        }
+        for (FederalState state : VALUES) {
+            if (state.name.equals(region)) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param ordinal
+     * @return The state with the given ordinal, without allocating a copy of values().
+     */
+    public static FederalState FromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * @param regions Full names or two-letter codes
+     * @return Bitmask of the known states in the list
+     */
+    public static int MaskOf(List<String> regions) {
+        int mask = 0;
+        for (String region : regions) {
+            FederalState state = Parse(region);
+            if (state != null) {
+                mask |= state.GetMask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask Bitmask of GetMask() values
+     * @return Full names of the states in the mask. The read-only list is created once per mask and then shared.
+     */
+    public static List<String> NamesOf(int mask) {
+        List<String> names = namesByMask.get(mask);
+        if (names == null) {
+            List<String> created = new ArrayList<>();
+            for (FederalState state : VALUES) {
+                if ((mask & state.GetMask()) != 0) {
+                    created.add(state.name);
+                }
+            }
+            names = namesByMask.computeIfAbsent(mask, key -> List.copyOf(created));
+        }
+        return names;
+    }
+
+    public static EnumSet<FederalState> SetOf(int mask) {
+        EnumSet<FederalState> states = EnumSet.noneOf(FederalState.class);
+        for (FederalState state : VALUES) {
+            if ((mask & state.GetMask()) != 0) {
+                states.add(state);
+            }
+        }
+        return states;
+    }
+
+    public static int Count() {
+        return VALUES.length;
+    }
+}
@@ -0,0 +1,71 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       GermanHolidayProvider
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The German holidays: the active HolidayRuleSet with the federal
+| states as regions. HolidayCountry answers its queries through
+| the HolidayCache, like HolidayCalculator.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class GermanHolidayProvider implements HolidayProvider {
+
+    static final String COUNTRY_CODE = "DE";
+    private static final List<String> REGION_CODES = RegionCodes();
+
+    private static List<String> RegionCodes() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < FederalState.Count(); i++) {
+            codes.add(FederalState.FromOrdinal(i).GetCode());
+        }
+        return List.copyOf(codes);
+    }
+
+    /**
+     * @return HolidayRuleSet.Active(), so rules set with HolidayRuleSet.SetActive apply here as well.
+     */
+    @Override
+    public HolidayRuleSet LoadRules() {
+        return HolidayRuleSet.Active();
+    }
+
+    // Gettermethods
+    @Override
+    public String GetCountryCode() {
+        return COUNTRY_CODE;
+    }
+
+    @Override
+    public String GetName() {
+        return "Deutschland";
+    }
+
+    /**
+     * @return The FederalState codes in ordinal order
+     */
+    @Override
+    public List<String> GetRegionCodes() {
+        return REGION_CODES;
+    }
+
+    @Override
+    public String GetRegionName(String code) {
+        FederalState state = FederalState.Parse(code);
+        return state == null ? code : state.GetName();
+    }
+}
@@ -0,0 +1,502 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayBatchClassifier
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Classifies large CSV/TSV files of (date, state) records: does the
+| date fall on a holiday in the state? Files are memory-mapped in
+| windows, stdin is read through a channel. Lines are parsed
+| directly from the bytes, no String or LocalDate is created per
+| record, the lookup is a bit test in the index of the year.
+|
+| Output is either the input with two more columns (flag, name of
+| the holiday) or only the counts per state.
+|
+|   java -cp calculate-holidays.jar CalculateHolidays.HolidayBatchClassifier
+|        [--counts] [--types 0,1] [--columns 1,2] [file | -]
+|
+| Dates as yyyy-MM-dd or dd.MM.yyyy (anything after the date in the
+| same column, like a time, is ignored), states as two-letter code,
+| an empty state means nationwide holidays only. Separator is the
+| first of , ; or tab found. A first line without a valid date is
+| treated as header.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class HolidayBatchClassifier {
+
+    private static final int LEGAL_HOLIDAYS = HolidayType.NATIONAL_HOLIDAY.GetMask() | HolidayType.REGIONAL_HOLIDAY.GetMask();
+    private static final int MAP_WINDOW = 1 << 28;          // 256 MB per mapping
+    private static final int READ_BUFFER = 1 << 20;
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int MAX_YEAR = 9999;
+    private static final int NO_STATE = HolidayIndex.NATIONWIDE;
+    private static final int INVALID = -1;
+    // [(first letter - 'A') * 26 + second letter - 'A'] = state ordinal + 1, 0 = unknown
+    private static final byte[] STATE_BY_CODE = new byte[26 * 26];
+
+    static {
+        for (FederalState state : FederalState.values()) {
+            String code = state.GetCode();
+            STATE_BY_CODE[(code.charAt(0) - 'A') * 26 + code.charAt(1) - 'A'] = (byte) (state.ordinal() + 1);
+        }
+    }
+
+    private final int typeMask;
+    private final int dateColumn;
+    private final int stateColumn;
+
+    private HolidayBatchClassifier(int typeMask, int dateColumn, int stateColumn) {
+        this.typeMask = typeMask;
+        this.dateColumn = dateColumn;
+        this.stateColumn = stateColumn;
+    }
+
+    /**
+     * @return Classifier for national and regional holidays, date in column 1, state in column 2.
+     */
+    public static HolidayBatchClassifier Create() {
+        return new HolidayBatchClassifier(LEGAL_HOLIDAYS, 1, 2);
+    }
+
+    /**
+     * @param filter Only the type mask is used, the state comes from each record. No types means all types.
+     * @return Classifier for the filtered types, date in column 1, state in column 2.
+     */
+    public static HolidayBatchClassifier Create(HolidayFilter filter) {
+        int mask = filter.GetTypeMask();
+        return new HolidayBatchClassifier(mask == 0 ? -1 : mask, 1, 2);
+    }
+
+    /**
+     * @param dateColumn Column of the date, starting with 1
+     * @param stateColumn Column of the state code, starting with 1
+     * @return New classifier reading the given columns
+     */
+    public HolidayBatchClassifier WithColumns(int dateColumn, int stateColumn) {
+        if (dateColumn < 1 || stateColumn < 1 || dateColumn == stateColumn) {
+            throw new IllegalArgumentException("Invalid columns: " + dateColumn + ", " + stateColumn);
+        }
+        return new HolidayBatchClassifier(typeMask, dateColumn, stateColumn);
+    }
+
+    /**
+     * Classifies a file, memory-mapped window by window.
+     *
+     * @param input
+     * @param annotated Receives every line with the columns holiday (1/0, - if invalid) and name. Null for counts only.
+     * @return The counters of the run
+     * @throws IOException
+     */
+    public HolidayBatchResult Classify(Path input, OutputStream annotated) throws IOException {
+        Run run = new Run(annotated);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = run.Process(window, last);
+                if (consumed == 0 && !last) {
+                    throw new IllegalArgumentException("Line longer than " + MAP_WINDOW + " bytes at offset " + position);
+                }
+                position += consumed;
+            }
+        }
+        return run.Finish();
+    }
+
+    /**
+     * Classifies everything readable from the channel, e.g. stdin.
+     *
+     * @param input
+     * @param annotated See Classify(Path, OutputStream)
+     * @return The counters of the run
+     * @throws IOException
+     */
+    public HolidayBatchResult Classify(ReadableByteChannel input, OutputStream annotated) throws IOException {
+        Run run = new Run(annotated);
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER);
+        boolean last = false;
+        while (!last) {
+            last = input.read(buffer) < 0;
+            buffer.flip();
+            int consumed = run.Process(buffer, last);
+            if (consumed == 0 && !last && buffer.limit() == buffer.capacity()) {
+                throw new IllegalArgumentException("Line longer than " + READ_BUFFER + " bytes");
+            }
+            buffer.position(consumed);
+            buffer.compact();
+        }
+        return run.Finish();
+    }
+
+    /*---------------------------------------------------------------------
+    | State of a single run: separator, output buffer, counters and the
+    | indexes of the years seen so far.
+    +---------------------------------------------------------------------- */
+    private final class Run {
+        private final OutputStream output;
+        private final byte[] out = new byte[1 << 16];
+        private int outLength;
+        private final long[] records = new long[HolidayIndex.SLOTS];
+        private final long[] holidays = new long[HolidayIndex.SLOTS];
+        private long invalid;
+        private long lines;
+        private byte separator;
+        private HolidayIndex[] indexes = new HolidayIndex[64];
+        private final Map<String, byte[]> names = new IdentityHashMap<>();
+        private final long started = System.nanoTime();
+        // Result of the last ParseLine()
+        private int year;
+        private int dayOfYear;
+        private int slot;
+
+        Run(OutputStream output) {
+            this.output = output;
+        }
+
+        /**
+         * @return Number of bytes consumed from the buffer's start, always whole lines.
+         *         With last == true everything is consumed.
+         */
+        int Process(ByteBuffer buffer, boolean last) throws IOException {
+            int limit = buffer.limit();
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    Line(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (last && lineStart < limit) {
+                Line(buffer, lineStart, limit);
+                lineStart = limit;
+            }
+            return lineStart;
+        }
+
+        private void Line(ByteBuffer buffer, int start, int end) throws IOException {
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            lines++;
+            if (end == start) {
+                return;
+            }
+            if (separator == 0) {
+                separator = DetectSeparator(buffer, start, end);
+            }
+            boolean valid = ParseLine(buffer, start, end);
+            if (!valid && lines == 1) {
+                // Header
+                if (output != null) {
+                    Copy(buffer, start, end);
+                    Append(OutputSeparator());
+                    Append("holiday".getBytes(StandardCharsets.US_ASCII));
+                    Append(OutputSeparator());
+                    Append("name".getBytes(StandardCharsets.US_ASCII));
+                    Append((byte) '\n');
+                }
+                return;
+            }
+            if (!valid) {
+                invalid++;
+                if (output != null) {
+                    Copy(buffer, start, end);
+                    Append(OutputSeparator());
+                    Append((byte) '-');
+                    Append(OutputSeparator());
+                    Append((byte) '\n');
+                }
+                return;
+            }
+            HolidayIndex index = GetIndex(year);
+            FederalState state = slot == NO_STATE ? null : FederalState.FromOrdinal(slot);
+            boolean holiday = index.Contains(dayOfYear, state, typeMask);
+            records[slot]++;
+            if (holiday) {
+                holidays[slot]++;
+            }
+            if (output != null) {
+                Copy(buffer, start, end);
+                Append(OutputSeparator());
+                Append((byte) (holiday ? '1' : '0'));
+                Append(OutputSeparator());
+                if (holiday) {
+                    Append(NameOf(index.GetEntries(dayOfYear, state)));
+                }
+                Append((byte) '\n');
+            }
+        }
+
+        // Files with a single column get a comma
+        private byte OutputSeparator() {
+            return separator == 0 ? (byte) ',' : separator;
+        }
+
+        /**
+         * Locates date and state column and parses them into year, dayOfYear and slot.
+         */
+        private boolean ParseLine(ByteBuffer buffer, int start, int end) {
+            int dateStart = INVALID;
+            int dateEnd = INVALID;
+            int stateStart = INVALID;
+            int stateEnd = INVALID;
+            int column = 1;
+            int columnStart = start;
+            int lastColumn = Math.max(dateColumn, stateColumn);
+            for (int i = start; i <= end && column <= lastColumn; i++) {
+                if (i == end || buffer.get(i) == separator) {
+                    if (column == dateColumn) {
+                        dateStart = columnStart;
+                        dateEnd = i;
+                    } else if (column == stateColumn) {
+                        stateStart = columnStart;
+                        stateEnd = i;
+                    }
+                    column++;
+                    columnStart = i + 1;
+                }
+            }
+            if (dateStart == INVALID) {
+                return false;
+            }
+            slot = stateStart == INVALID ? NO_STATE : ParseState(buffer, stateStart, stateEnd);
+            return slot != INVALID && ParseDate(buffer, dateStart, dateEnd);
+        }
+
+        // yyyy-MM-dd or dd.MM.yyyy, leading blanks and quotes are skipped
+        private boolean ParseDate(ByteBuffer buffer, int start, int end) {
+            while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '"')) {
+                start++;
+            }
+            if (end - start < 10) {
+                return false;
+            }
+            int month;
+            int day;
+            if (buffer.get(start + 4) == '-' && buffer.get(start + 7) == '-') {
+                year = Digits(buffer, start, 4);
+                month = Digits(buffer, start + 5, 2);
+                day = Digits(buffer, start + 8, 2);
+            } else if (buffer.get(start + 2) == '.' && buffer.get(start + 5) == '.') {
+                day = Digits(buffer, start, 2);
+                month = Digits(buffer, start + 3, 2);
+                year = Digits(buffer, start + 6, 4);
+            } else {
+                return false;
+            }
+            if (year < CalculateHolidays.MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1) {
+                return false;
+            }
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            if (day > DAYS_IN_MONTH[month - 1] || (month == 2 && day == 29 && !leap)) {
+                return false;
+            }
+            dayOfYear = DAYS_BEFORE_MONTH[month - 1] + (leap && month > 2 ? 1 : 0) + day;
+            return true;
+        }
+
+        private HolidayIndex GetIndex(int year) {
+            int offset = year - CalculateHolidays.MIN_YEAR;
+            if (offset >= indexes.length) {
+                indexes = Arrays.copyOf(indexes, Math.max(offset + 1, indexes.length * 2));
+            }
+            HolidayIndex index = indexes[offset];
+            if (index == null) {
+                index = HolidayCache.GetSnapshot(year).GetIndex();
+                indexes[offset] = index;
+            }
+            return index;
+        }
+
+        private byte[] NameOf(List<HolidayEntry> entries) {
+            for (HolidayEntry entry : entries) {
+                if ((entry.GetType().GetMask() & typeMask) != 0) {
+                    return names.computeIfAbsent(entry.GetNameOfHoliday(), name -> name.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return new byte[0];
+        }
+
+        private void Copy(ByteBuffer buffer, int start, int end) throws IOException {
+            int length = end - start;
+            while (length > 0) {
+                if (outLength == out.length) {
+                    Flush();
+                }
+                int chunk = Math.min(length, out.length - outLength);
+                buffer.get(start, out, outLength, chunk);
+                outLength += chunk;
+                start += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void Append(byte value) throws IOException {
+            if (outLength == out.length) {
+                Flush();
+            }
+            out[outLength++] = value;
+        }
+
+        private void Append(byte[] values) throws IOException {
+            for (byte value : values) {
+                Append(value);
+            }
+        }
+
+        private void Flush() throws IOException {
+            output.write(out, 0, outLength);
+            outLength = 0;
+        }
+
+        HolidayBatchResult Finish() throws IOException {
+            if (output != null) {
+                Flush();
+                output.flush();
+            }
+            return new HolidayBatchResult(records, holidays, invalid, System.nanoTime() - started);
+        }
+    }
+
+    private static byte DetectSeparator(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte value = buffer.get(i);
+            if (value == ',' || value == ';' || value == '\t') {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    // Two-letter code, case-insensitive, surrounding blanks and quotes are skipped. Empty = no state.
+    private static int ParseState(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '"')) {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) == ' ' || buffer.get(end - 1) == '"')) {
+            end--;
+        }
+        if (start == end) {
+            return NO_STATE;
+        }
+        if (end - start != 2) {
+            return INVALID;
+        }
+        int first = (buffer.get(start) & 0xDF) - 'A';
+        int second = (buffer.get(start + 1) & 0xDF) - 'A';
+        if (first < 0 || first >= 26 || second < 0 || second >= 26) {
+            return INVALID;
+        }
+        return STATE_BY_CODE[first * 26 + second] - 1;
+    }
+
+    // -1 if a character is not a digit
+    private static int Digits(ByteBuffer buffer, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean countsOnly = false;
+        HolidayFilter filter = HolidayFilter.OfTypes(HolidayType.NATIONAL_HOLIDAY, HolidayType.REGIONAL_HOLIDAY);
+        int dateColumn = 1;
+        int stateColumn = 2;
+        String file = "-";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--counts":
+                    countsOnly = true;
+                    break;
+                case "--types":
+                    filter = HolidayFilter.ALL;
+                    for (String value : args[++i].split(",")) {
+                        HolidayType type = HolidayType.FromValue(Integer.parseInt(value.trim()));
+                        if (type == null) {
+                            throw new IllegalArgumentException("Unknown holiday type: " + value);
+                        }
+                        filter = filter.WithTypes(type);
+                    }
+                    break;
+                case "--columns":
+                    String[] columns = args[++i].split(",");
+                    dateColumn = Integer.parseInt(columns[0].trim());
+                    stateColumn = Integer.parseInt(columns[1].trim());
+                    break;
+                default:
+                    file = args[i];
+                    break;
+            }
+        }
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        HolidayBatchClassifier classifier = Create(filter).WithColumns(dateColumn, stateColumn);
+        OutputStream annotated = countsOnly ? null : new BufferedOutputStream(System.out, 1 << 16);
+        HolidayBatchResult result = file.equals("-")
+            ? classifier.Classify(Channels.newChannel(System.in), annotated)
+            : classifier.Classify(Paths.get(file), annotated);
+
+        if (countsOnly) {
+            System.out.println("state,records,holidays");
+            for (FederalState state : FederalState.values()) {
+                System.out.println(state.GetCode() + "," + result.GetRecords(state) + "," + result.GetHolidays(state));
+            }
+            System.out.println("," + result.GetRecords(null) + "," + result.GetHolidays(null));
+        }
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        PrintStream report = System.err;
+        report.printf("records: %d, holidays: %d, invalid: %d%n", result.GetRecords(), result.GetHolidays(), result.GetInvalid());
+        report.printf("time: %.3f s, %.0f records/s, peak heap: %.1f MB%n",
+            result.GetElapsedNanos() / 1e9, result.GetRecordsPerSecond(), peakHeap / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,91 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayBatchResult
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Counters of one HolidayBatchClassifier run: records and hits per
+| state, invalid lines and the elapsed time.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public final class HolidayBatchResult {
+
+    // Index = HolidayIndex slot: state ordinal, last slot = records without state
+    private final long[] records;
+    private final long[] holidays;
+    private final long invalid;
+    private final long elapsedNanos;
+
+    HolidayBatchResult(long[] records, long[] holidays, long invalid, long elapsedNanos) {
+        this.records = records.clone();
+        this.holidays = holidays.clone();
+        this.invalid = invalid;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Gettermethods
+    /**
+     * @return Number of valid records
+     */
+    public long GetRecords() {
+        long sum = 0;
+        for (long count : records) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * @param state The state or null for records without state.
+     */
+    public long GetRecords(FederalState state) {
+        return records[state == null ? HolidayIndex.NATIONWIDE : state.ordinal()];
+    }
+
+    /**
+     * @return Number of records that fall on a holiday
+     */
+    public long GetHolidays() {
+        long sum = 0;
+        for (long count : holidays) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * @param state The state or null for records without state.
+     */
+    public long GetHolidays(FederalState state) {
+        return holidays[state == null ? HolidayIndex.NATIONWIDE : state.ordinal()];
+    }
+
+    /**
+     * @return Lines without a valid date or state code (header line excluded)
+     */
+    public long GetInvalid() {
+        return invalid;
+    }
+
+    public long GetElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Valid and invalid records per second, 0.0 if nothing was read.
+     */
+    public double GetRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : (GetRecords() + invalid) * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,183 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayBulkGenerator
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Generates the full calendars of many years and states at once,
+| e.g. 16 states over several hundred years for long-range
+| planning. The (year, state) cells are split in halves on a
+| ForkJoinPool, the common pool by default, down to a few cells
+| per task; the halves are cut at year boundaries where possible.
+| A task calculates each of its years once from the active rules
+| and filters the list for each state of the year.
+|
+| The HolidayCache is bypassed: the years of a long range would
+| only evict each other. The HolidayBulkResult is allocated before
+| the run and every task writes into its own cells, so the tasks
+| share nothing but the rules.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class HolidayBulkGenerator {
+
+    // Tasks per thread of the pool, so that threads that finish early can steal
+    private static final int TASKS_PER_THREAD = 8;
+
+    private final HolidayFilter typeFilter;
+    private final ForkJoinPool pool;
+
+    private HolidayBulkGenerator(HolidayFilter typeFilter, ForkJoinPool pool) {
+        this.typeFilter = typeFilter;
+        this.pool = pool;
+    }
+
+    /**
+     * @return Generator for holidays of all types on the common pool.
+     */
+    public static HolidayBulkGenerator Create() {
+        return new HolidayBulkGenerator(HolidayFilter.ALL, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param filter Only the type mask is used, the states are given per run. No types means all types.
+     * @return Generator for the filtered types on the common pool.
+     */
+    public static HolidayBulkGenerator Create(HolidayFilter filter) {
+        return new HolidayBulkGenerator(filter.WithoutStates(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool
+     * @return New generator running on the given pool
+     */
+    public HolidayBulkGenerator WithPool(ForkJoinPool pool) {
+        return new HolidayBulkGenerator(typeFilter, pool);
+    }
+
+    /**
+     * @param fromYear First year, included
+     * @param toYear Last year, included
+     * @param states States to generate, none means all 16
+     * @return The calendars of all years and states
+     */
+    public HolidayBulkResult Generate(int fromYear, int toYear, FederalState... states) {
+        long started = System.nanoTime();
+        Run run = new Run(fromYear, toYear, states);
+        int cells = run.result.GetCellCount();
+        int threshold = Math.max(1, cells / (pool.getParallelism() * TASKS_PER_THREAD));
+        pool.invoke(new Task(run, 0, cells, threshold));
+        run.result.SetElapsedNanos(System.nanoTime() - started);
+        return run.result;
+    }
+
+    /**
+     * Same result as Generate, calculated on the calling thread.
+     */
+    public HolidayBulkResult GenerateSequential(int fromYear, int toYear, FederalState... states) {
+        long started = System.nanoTime();
+        Run run = new Run(fromYear, toYear, states);
+        run.Fill(0, run.result.GetCellCount());
+        run.result.SetElapsedNanos(System.nanoTime() - started);
+        return run.result;
+    }
+
+    // Gettermethods
+    public HolidayFilter GetFilter() {
+        return typeFilter;
+    }
+
+    public ForkJoinPool GetPool() {
+        return pool;
+    }
+
+    private final class Run {
+        final HolidayRuleSet rules = HolidayRuleSet.Active();
+        final HolidayFilter[] stateFilters;
+        final HolidayBulkResult result;
+
+        Run(int fromYear, int toYear, FederalState[] states) {
+            if (fromYear < CalculateHolidays.MIN_YEAR) {
+                throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + fromYear);
+            }
+            if (toYear < fromYear) {
+                throw new IllegalArgumentException("Last year before first year: " + fromYear + " - " + toYear);
+            }
+            if (states.length == 0) {
+                states = FederalState.values();
+            }
+            this.stateFilters = new HolidayFilter[states.length];
+            for (int i = 0; i < states.length; i++) {
+                stateFilters[i] = typeFilter.WithMasks(typeFilter.GetTypeMask(), states[i].GetMask());
+            }
+            this.result = new HolidayBulkResult(fromYear, toYear, states, rules);
+        }
+
+        // Fills the cells from - to (excluded), each year is calculated once
+        void Fill(int from, int to) {
+            HolidayEntry[] entries = result.GetEntryArray();
+            int year = 0;
+            List<HolidayEntry> holidays = null;
+            for (int cell = from; cell < to; cell++) {
+                if (holidays == null || result.GetCellYear(cell) != year) {
+                    year = result.GetCellYear(cell);
+                    holidays = rules.Evaluate(year, typeFilter);
+                }
+                HolidayFilter filter = stateFilters[cell % stateFilters.length];
+                int offset = result.GetCellOffset(cell);
+                int count = 0;
+                for (HolidayEntry entry : holidays) {
+                    if (filter.Matches(entry)) {
+                        entries[offset + count++] = entry;
+                    }
+                }
+                result.SetCellCount(cell, count);
+            }
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Run run;    // Tasks are never serialized, the run holds the shared output arrays
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        Task(Run run, int from, int to, int threshold) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                run.Fill(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            int statesPerYear = run.stateFilters.length;
+            int yearStart = middle - middle % statesPerYear;
+            if (yearStart > from) {
+                middle = yearStart;
+            }
+            invokeAll(new Task(run, from, middle, threshold), new Task(run, middle, to, threshold));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayBulkResult
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Calendars of a HolidayBulkGenerator run: the holidays of every
+| (year, state) cell. All entries are in one array that is
+| allocated before the run. Each cell has a fixed slice of it, as
+| large as the full list of its year, so the tasks of the run
+| write without coordination; the count of a cell says how much
+| of its slice is used.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class HolidayBulkResult {
+
+    private final int fromYear;
+    private final int toYear;
+    private final FederalState[] states;
+    private final int[] columns;            // state ordinal -> column, -1 = not generated
+    private final int[] yearOffsets;        // first slot of each year, last element = size
+    private final int[] strides;            // slots per cell of each year
+    private final int[] counts;             // [(year - fromYear) * states + column]
+    private final HolidayEntry[] entries;
+    private long elapsedNanos;
+
+    HolidayBulkResult(int fromYear, int toYear, FederalState[] states, HolidayRuleSet rules) {
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.states = states.clone();
+        this.columns = new int[FederalState.Count()];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < states.length; i++) {
+            columns[states[i].ordinal()] = i;
+        }
+        int years = toYear - fromYear + 1;
+        this.yearOffsets = new int[years + 1];
+        this.strides = new int[years];
+        long size = 0;
+        for (int i = 0; i < years; i++) {
+            yearOffsets[i] = (int) size;
+            strides[i] = rules.GetVisibleCount(fromYear + i);
+            size += (long) strides[i] * states.length;
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cells: " + years + " years x " + states.length + " states");
+        }
+        yearOffsets[years] = (int) size;
+        this.counts = new int[years * states.length];
+        this.entries = new HolidayEntry[(int) size];
+    }
+
+    // Cells are numbered year by year: (year - fromYear) * states + column
+    int GetCellCount() {
+        return counts.length;
+    }
+
+    int GetCellYear(int cell) {
+        return fromYear + cell / states.length;
+    }
+
+    FederalState GetCellState(int cell) {
+        return states[cell % states.length];
+    }
+
+    int GetCellOffset(int cell) {
+        int year = cell / states.length;
+        return yearOffsets[year] + (cell % states.length) * strides[year];
+    }
+
+    void SetCellCount(int cell, int count) {
+        counts[cell] = count;
+    }
+
+    HolidayEntry[] GetEntryArray() {
+        return entries;
+    }
+
+    void SetElapsedNanos(long nanos) {
+        elapsedNanos = nanos;
+    }
+
+    private int Cell(int year, FederalState state) {
+        int column = columns[state.ordinal()];
+        if (year < fromYear || year > toYear || column < 0) {
+            throw new IllegalArgumentException("Not generated: " + year + " " + state.GetCode());
+        }
+        return (year - fromYear) * states.length + column;
+    }
+
+    // Gettermethods
+    /**
+     * @param year
+     * @param state
+     * @return The holidays of the state in the year, sorted by date. Read-only view, nothing is copied.
+     */
+    public List<HolidayEntry> GetHolidays(int year, FederalState state) {
+        int cell = Cell(year, state);
+        int offset = GetCellOffset(cell);
+        return Collections.unmodifiableList(Arrays.asList(entries).subList(offset, offset + counts[cell]));
+    }
+
+    public int GetCount(int year, FederalState state) {
+        return counts[Cell(year, state)];
+    }
+
+    /**
+     * @return Number of entries of all cells
+     */
+    public long GetTotalCount() {
+        long sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public int GetFromYear() {
+        return fromYear;
+    }
+
+    public int GetToYear() {
+        return toYear;
+    }
+
+    public List<FederalState> GetStates() {
+        return List.of(states);
+    }
+
+    public long GetElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,101 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayCache
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Process-wide, bounded cache of HolidayYearSnapshot instances.
+| Reads do not lock. When the capacity is exceeded, the oldest
+| inserted year is evicted (FIFO). Holds the German years, the
+| other countries have their own cache in HolidayCountry.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public final class HolidayCache {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final HolidayYearCache years = new HolidayYearCache(HolidayRuleSet::Active, FederalState.Count(), DEFAULT_CAPACITY);
+
+    private HolidayCache() {
+    }
+
+    /**
+     * Returns the snapshot of the given year. On a miss the year is calculated and stored.
+     * Two threads missing the same year at the same time may both calculate it, but only one
+     * snapshot is kept and returned to both.
+     * 
+     * @param year
+     * @return The immutable snapshot of the year
+     */
+    public static HolidayYearSnapshot GetSnapshot(int year) {
+        return years.GetSnapshot(year);
+    }
+
+    /**
+     * Sets the maximum number of cached years. 0 disables the cache; single-day queries then
+     * evaluate the rules of the year instead of the index.
+     * Countries loaded through HolidayCountry afterwards start with the same capacity.
+     * 
+     * @param maxYears
+     */
+    public static void SetCapacity(int maxYears) {
+        years.SetCapacity(maxYears);
+    }
+
+    /**
+     * Removes all cached years. The statistics are kept.
+     */
+    public static void Clear() {
+        years.Clear();
+    }
+
+    /**
+     * Resets hit, miss and eviction counters.
+     */
+    public static void ResetStatistics() {
+        years.ResetStatistics();
+    }
+
+    static HolidayYearCache GetYears() {
+        return years;
+    }
+
+    // Gettermethods
+    public static int GetCapacity() {
+        return years.GetCapacity();
+    }
+
+    public static int GetSize() {
+        return years.GetSize();
+    }
+
+    public static long GetHitCount() {
+        return years.GetHitCount();
+    }
+
+    public static long GetMissCount() {
+        return years.GetMissCount();
+    }
+
+    public static long GetEvictionCount() {
+        return years.GetEvictionCount();
+    }
+
+    /**
+     * @return Hits divided by all requests, 0.0 if there were no requests yet.
+     */
+    public static double GetHitRate() {
+        return years.GetHitRate();
+    }
+}
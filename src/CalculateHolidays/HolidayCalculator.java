@@ -0,0 +1,251 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayCalculator
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Immutable, thread-safe counterpart of CalculateHolidays. The year
+| and the filter are arguments of each query instead of instance
+| state, so one instance can serve any number of threads without
+| synchronization. WithFilter returns a new instance with another
+| default filter.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class HolidayCalculator {
+
+    private static final HolidayCalculator DEFAULT = new HolidayCalculator(HolidayFilter.ALL);
+    private static final int LEGAL_HOLIDAYS = HolidayType.NATIONAL_HOLIDAY.GetMask() | HolidayType.REGIONAL_HOLIDAY.GetMask();
+
+    private final HolidayFilter filter;
+
+    private HolidayCalculator(HolidayFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * @return The shared calculator without filter.
+     */
+    public static HolidayCalculator Create() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param filter Default filter of the queries without filter argument
+     */
+    public static HolidayCalculator Create(HolidayFilter filter) {
+        return DEFAULT.WithFilter(filter);
+    }
+
+    /**
+     * @param filter
+     * @return A new calculator with the given default filter. This instance is unchanged.
+     */
+    public HolidayCalculator WithFilter(HolidayFilter filter) {
+        if (filter == null || filter.IsEmpty()) {
+            return DEFAULT;
+        }
+        return filter.equals(this.filter) ? this : new HolidayCalculator(filter);
+    }
+
+    public HolidayFilter GetFilter() {
+        return filter;
+    }
+
+    public List<HolidayEntry> GetHolidays(int year) {
+        return GetHolidays(year, filter);
+    }
+
+    /**
+     * Returns the holidays of a year that pass the filter.
+     * Without filter the shared snapshot of the HolidayCache is returned as it is, no list is copied.
+     * 
+     * @param year
+     * @param filter
+     * @return Read-only list sorted by date
+     */
+    public List<HolidayEntry> GetHolidays(int year, HolidayFilter filter) {
+        CheckYear(year);
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        List<HolidayEntry> holidayList = Collect(year, filter);
+        HolidayMetrics.Record(HolidayOperation.GET_HOLIDAYS, started, allocated);
+        return holidayList;
+    }
+
+    private static List<HolidayEntry> Collect(int year, HolidayFilter filter) {
+        if (HolidayCache.GetCapacity() == 0) {
+            return Collections.unmodifiableList(new CalculateHolidays(year).BuildHolidayList(filter));
+        }
+        List<HolidayEntry> entries = HolidayCache.GetSnapshot(year).GetEntries();
+        if (filter.IsEmpty()) {
+            return entries;
+        }
+        HolidayFilterEvent event = new HolidayFilterEvent();
+        event.begin();
+        List<HolidayEntry> holidayList = new ArrayList<>();
+        for (HolidayEntry entry : entries) {
+            if (filter.Matches(entry)) {
+                holidayList.add(entry);
+            }
+        }
+        if (event.shouldCommit()) {
+            event.year = year;
+            event.typeMask = filter.GetTypeMask();
+            event.stateMask = filter.GetStateMask();
+            event.entries = entries.size();
+            event.matches = holidayList.size();
+            event.commit();
+        }
+        return Collections.unmodifiableList(holidayList);
+    }
+
+    public Stream<HolidayEntry> GetHolidaysBetween(LocalDate from, LocalDate to) {
+        return GetHolidaysBetween(from, to, filter);
+    }
+
+    /**
+     * Lazy stream of the holidays between two dates, see CalculateHolidays.GetHolidaysBetween.
+     * 
+     * @param from First day, included
+     * @param to Last day, included
+     * @param filter
+     * @return Stream of the holidays sorted by date
+     */
+    public Stream<HolidayEntry> GetHolidaysBetween(LocalDate from, LocalDate to, HolidayFilter filter) {
+        CheckYear(from.getYear());
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        Stream<HolidayEntry> holidays = StreamSupport.stream(new HolidayRangeSpliterator(from, to, filter), false);
+        // Only the creation is measured, the years are calculated while the stream is consumed
+        HolidayMetrics.Record(HolidayOperation.HOLIDAYS_BETWEEN, started, allocated);
+        return holidays;
+    }
+
+    public List<HolidayEntry> GetUpcomingHolidays(int count, Clock clock) {
+        return GetUpcomingHolidays(count, clock, filter);
+    }
+
+    /**
+     * Returns the next holidays from today on, across as many years as needed.
+     * The calculation stops as soon as count holidays are found.
+     * 
+     * @param count Number of holidays
+     * @param clock Source of "today", today is included
+     * @param filter
+     * @return Read-only list sorted by date
+     */
+    public List<HolidayEntry> GetUpcomingHolidays(int count, Clock clock, HolidayFilter filter) {
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        HolidayCursor cursor = GetHolidaysFrom(LocalDate.now(clock), filter);
+        List<HolidayEntry> holidayList = new ArrayList<>(count);
+        while (holidayList.size() < count && cursor.hasNext()) {
+            holidayList.add(cursor.next());
+        }
+        HolidayMetrics.Record(HolidayOperation.UPCOMING_HOLIDAYS, started, allocated);
+        return Collections.unmodifiableList(holidayList);
+    }
+
+    /**
+     * @param start First day, included
+     * @param filter
+     * @return Cursor over all following holidays, without end.
+     */
+    public HolidayCursor GetHolidaysFrom(LocalDate start, HolidayFilter filter) {
+        return new HolidayCursor(start, filter);
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @return True if a national or regional holiday falls on the date in the state.
+     */
+    public boolean IsHoliday(LocalDate date, FederalState state) {
+        return IsHoliday(date, state, LEGAL_HOLIDAYS);
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @param filter Only the type mask is used, the state is given explicitly. No types means all types.
+     * @return True if a holiday of the filtered types falls on the date in the state.
+     */
+    public boolean IsHoliday(LocalDate date, FederalState state, HolidayFilter filter) {
+        int typeMask = filter.GetTypeMask();
+        return IsHoliday(date, state, typeMask == 0 ? -1 : typeMask);
+    }
+
+    boolean IsHoliday(LocalDate date, FederalState state, int typeMask) {
+        if (date.getYear() < CalculateHolidays.MIN_YEAR) {
+            return false;
+        }
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        boolean holiday = HolidayCache.GetCapacity() == 0
+            ? !EvaluateDay(date, state, typeMask).isEmpty()
+            : HolidayCache.GetSnapshot(date.getYear()).GetIndex().Contains(date.getDayOfYear(), state, typeMask);
+        HolidayMetrics.Record(HolidayOperation.IS_HOLIDAY, started, allocated);
+        return holiday;
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide entries only.
+     * @return All entries of the date that apply to the state. Read-only, empty if nothing falls on the date.
+     */
+    public List<HolidayEntry> GetHolidaysOn(LocalDate date, FederalState state) {
+        if (date.getYear() < CalculateHolidays.MIN_YEAR) {
+            return List.of();
+        }
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        List<HolidayEntry> entries = HolidayCache.GetCapacity() == 0
+            ? EvaluateDay(date, state, -1)
+            : HolidayCache.GetSnapshot(date.getYear()).GetIndex().GetEntries(date.getDayOfYear(), state);
+        HolidayMetrics.Record(HolidayOperation.HOLIDAYS_ON, started, allocated);
+        return entries;
+    }
+
+    /*---------------------------------------------------------------------
+    | Without cache a snapshot and index would be built for every single
+    | day. Instead only the rules of the types and the state are evaluated,
+    | with the same region semantics as the index: entries without regions
+    | apply everywhere, state null means those only.
+    +---------------------------------------------------------------------- */
+    private static List<HolidayEntry> EvaluateDay(LocalDate date, FederalState state, int typeMask) {
+        HolidayFilter dayFilter = HolidayFilter.ALL.WithMasks(typeMask, state == null ? 0 : state.GetMask());
+        int epochDay = (int) date.toEpochDay();
+        List<HolidayEntry> entries = new ArrayList<>(1);
+        for (HolidayEntry entry : HolidayRuleSet.Active().Evaluate(date.getYear(), dayFilter)) {
+            if (entry.GetEpochDay() == epochDay && (entry.GetRegionMask() == 0 || state != null)) {
+                entries.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    private static void CheckYear(int year) {
+        if (year < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + year);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayCalendarFile
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Precomputed binary calendar of many years, all states and all
+| holiday types. The file is memory-mapped read-only and queried
+| straight from the mapped buffer, nothing is deserialized up front.
+| Several JVMs on one host share the pages through the OS cache.
+|
+| Layout (big-endian):
+|   Header, 64 bytes
+|     0  int   magic "HCAL"          4  short version, short header size
+|     8  int   first year           12  int   number of years
+|    16  int   number of entries    20  int   number of names
+|    24  int   offset year table    28  int   offset entries
+|    32  int   offset name table    36  int   offset name data
+|    40  int   file length          44  int   reserved
+|    48  long  fingerprint of the rule set
+|    56  long  CRC-32 of everything after the header
+|   Year table   int[years + 1]  first entry of each year
+|   Entries      long[entries]   sorted by date within a year:
+|                  bits  0 -  8  day of year
+|                  bits  9 - 11  HolidayType ordinal
+|                  bits 12 - 28  region mask
+|                  bits 32 - 47  name index
+|   Name table   int[names + 1]  offsets into the name data
+|   Name data    UTF-8
+|
+| A file written with another format version, a different rule set
+| or a broken checksum is rejected when opened.
+|
+|   java -cp calculate-holidays.jar CalculateHolidays.HolidayCalendarFile
+|        write <file> [firstYear] [lastYear] | check <file>
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public final class HolidayCalendarFile {
+
+    public static final int MAGIC = 0x4843414C;     // "HCAL"
+    public static final short VERSION = 1;
+    public static final int DEFAULT_FIRST_YEAR = CalculateHolidays.MIN_YEAR;
+    public static final int DEFAULT_LAST_YEAR = 2200;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int LEGAL_HOLIDAYS = HolidayType.NATIONAL_HOLIDAY.GetMask() | HolidayType.REGIONAL_HOLIDAY.GetMask();
+    private static final int DAY_BITS = 0x1FF;
+    private static final int TYPE_SHIFT = 9;
+    private static final int REGION_SHIFT = 12;
+    private static final int REGION_BITS = 0x1FFFF;
+    private static final int NAME_SHIFT = 32;
+
+    private final ByteBuffer buffer;
+    private final int firstYear;
+    private final int yearCount;
+    private final int yearTable;
+    private final int entries;
+    private final int nameTable;
+    private final int nameData;
+    // Names are decoded on first use only
+    private final String[] names;
+
+    private HolidayCalendarFile(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.firstYear = buffer.getInt(8);
+        this.yearCount = buffer.getInt(12);
+        this.names = new String[buffer.getInt(20)];
+        this.yearTable = buffer.getInt(24);
+        this.entries = buffer.getInt(28);
+        this.nameTable = buffer.getInt(32);
+        this.nameData = buffer.getInt(36);
+    }
+
+    /**
+     * Maps the file and checks header, checksum and rule fingerprint.
+     *
+     * @param file
+     * @return The calendar, ready for queries
+     * @throws IOException if the file cannot be read, is damaged or was written for other rules or another format version
+     */
+    public static HolidayCalendarFile Open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a calendar file: " + file);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a calendar file: " + file);
+        }
+        if (mapped.getShort(4) != VERSION || mapped.getShort(6) != HEADER_SIZE) {
+            throw new IOException("Unsupported calendar file version " + mapped.getShort(4) + ": " + file);
+        }
+        if (mapped.getInt(40) != mapped.capacity()) {
+            throw new IOException("Truncated calendar file: " + file);
+        }
+        if (mapped.getLong(48) != HolidayRuleSet.Active().GetFingerprint()) {
+            throw new IOException("Stale calendar file, the rules have changed: " + file);
+        }
+        if (mapped.getLong(56) != Checksum(mapped)) {
+            throw new IOException("Checksum mismatch in calendar file: " + file);
+        }
+        return new HolidayCalendarFile(mapped);
+    }
+
+    /**
+     * Opens the file, or (re)writes it first if it is missing, stale or damaged.
+     *
+     * @param file
+     * @param firstYear
+     * @param lastYear
+     * @return The calendar
+     * @throws IOException
+     */
+    public static HolidayCalendarFile OpenOrCreate(Path file, int firstYear, int lastYear) throws IOException {
+        if (Files.exists(file)) {
+            try {
+                HolidayCalendarFile calendar = Open(file);
+                if (calendar.GetFirstYear() <= firstYear && calendar.GetLastYear() >= lastYear) {
+                    return calendar;
+                }
+            } catch (IOException e) {
+                // Rewritten below
+            }
+        }
+        Write(file, firstYear, lastYear);
+        return Open(file);
+    }
+
+    /**
+     * Calculates all holidays of the years with the active rules and writes the calendar file.
+     * The file is written next to the target and moved into place, readers never see a partial file.
+     *
+     * @param file
+     * @param firstYear
+     * @param lastYear
+     * @throws IOException
+     */
+    public static void Write(Path file, int firstYear, int lastYear) throws IOException {
+        if (firstYear < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + firstYear);
+        }
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Last year " + lastYear + " is before first year " + firstYear);
+        }
+        HolidayRuleSet rules = HolidayRuleSet.Active();
+        int yearCount = lastYear - firstYear + 1;
+        int[] firstEntry = new int[yearCount + 1];
+        List<Long> packed = new ArrayList<>();
+        Map<String, Integer> nameIndex = new HashMap<>();
+        List<byte[]> nameBytes = new ArrayList<>();
+        for (int year = firstYear; year <= lastYear; year++) {
+            firstEntry[year - firstYear] = packed.size();
+            int januaryFirst = EasterTable.EpochDay(year, 1, 1);
+            for (HolidayEntry entry : rules.Evaluate(year, HolidayFilter.ALL)) {
+                Integer name = nameIndex.get(entry.GetNameOfHoliday());
+                if (name == null) {
+                    name = nameBytes.size();
+                    nameIndex.put(entry.GetNameOfHoliday(), name);
+                    nameBytes.add(entry.GetNameOfHoliday().getBytes(StandardCharsets.UTF_8));
+                }
+                long dayOfYear = entry.GetEpochDay() - januaryFirst + 1;
+                packed.add(dayOfYear | (long) entry.GetType().ordinal() << TYPE_SHIFT
+                    | (long) entry.GetRegionMask() << REGION_SHIFT | (long) name << NAME_SHIFT);
+            }
+        }
+        firstEntry[yearCount] = packed.size();
+
+        int nameDataLength = 0;
+        for (byte[] name : nameBytes) {
+            nameDataLength += name.length;
+        }
+        int yearTable = HEADER_SIZE;
+        int entries = yearTable + 4 * (yearCount + 1);
+        entries += (8 - entries % 8) % 8;
+        int nameTable = entries + 8 * packed.size();
+        int nameData = nameTable + 4 * (nameBytes.size() + 1);
+        int length = nameData + nameDataLength;
+
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.putInt(0, MAGIC);
+        out.putShort(4, VERSION);
+        out.putShort(6, (short) HEADER_SIZE);
+        out.putInt(8, firstYear);
+        out.putInt(12, yearCount);
+        out.putInt(16, packed.size());
+        out.putInt(20, nameBytes.size());
+        out.putInt(24, yearTable);
+        out.putInt(28, entries);
+        out.putInt(32, nameTable);
+        out.putInt(36, nameData);
+        out.putInt(40, length);
+        out.putLong(48, rules.GetFingerprint());
+        for (int i = 0; i <= yearCount; i++) {
+            out.putInt(yearTable + 4 * i, firstEntry[i]);
+        }
+        for (int i = 0; i < packed.size(); i++) {
+            out.putLong(entries + 8 * i, packed.get(i));
+        }
+        int offset = 0;
+        for (int i = 0; i < nameBytes.size(); i++) {
+            out.putInt(nameTable + 4 * i, offset);
+            out.put(nameData + offset, nameBytes.get(i));
+            offset += nameBytes.get(i).length;
+        }
+        out.putInt(nameTable + 4 * nameBytes.size(), offset);
+        out.putLong(56, Checksum(out));
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, out.array());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static long Checksum(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate().position(HEADER_SIZE));
+        return crc.getValue();
+    }
+
+    // Gettermethods
+    public int GetFirstYear() {
+        return firstYear;
+    }
+
+    public int GetLastYear() {
+        return firstYear + yearCount - 1;
+    }
+
+    public boolean Contains(int year) {
+        return year >= firstYear && year - firstYear < yearCount;
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @return True if a national or regional holiday falls on the date in the state.
+     * @throws IllegalArgumentException if the year is not in the file, the same for all queries
+     */
+    public boolean IsHoliday(LocalDate date, FederalState state) {
+        return IsHoliday(date.getYear(), date.getDayOfYear(), state, LEGAL_HOLIDAYS);
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @param filter Only the type mask is used. No types means all types.
+     * @return True if a holiday of the filtered types falls on the date in the state.
+     */
+    public boolean IsHoliday(LocalDate date, FederalState state, HolidayFilter filter) {
+        int typeMask = filter.GetTypeMask();
+        return IsHoliday(date.getYear(), date.getDayOfYear(), state, typeMask == 0 ? -1 : typeMask);
+    }
+
+    boolean IsHoliday(int year, int dayOfYear, FederalState state, int typeMask) {
+        CheckYear(year);
+        int end = FirstEntry(year + 1);
+        for (int i = FindDay(year, dayOfYear); i < end; i++) {
+            long entry = Entry(i);
+            if ((entry & DAY_BITS) != dayOfYear) {
+                return false;
+            }
+            if ((typeMask & 1 << Type(entry)) != 0 && AppliesTo(entry, state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide entries only.
+     * @return All entries of the date that apply to the state. Read-only, empty if nothing falls on the date.
+     */
+    public List<HolidayEntry> GetHolidaysOn(LocalDate date, FederalState state) {
+        int year = date.getYear();
+        int dayOfYear = date.getDayOfYear();
+        CheckYear(year);
+        int end = FirstEntry(year + 1);
+        List<HolidayEntry> holidayList = new ArrayList<>(2);
+        for (int i = FindDay(year, dayOfYear); i < end; i++) {
+            long entry = Entry(i);
+            if ((entry & DAY_BITS) != dayOfYear) {
+                break;
+            }
+            if (AppliesTo(entry, state)) {
+                holidayList.add(CreateEntry(year, entry));
+            }
+        }
+        return Collections.unmodifiableList(holidayList);
+    }
+
+    /**
+     * @param year
+     * @param filter
+     * @return The holidays of the year that pass the filter, sorted by date. Read-only.
+     */
+    public List<HolidayEntry> GetHolidays(int year, HolidayFilter filter) {
+        CheckYear(year);
+        int start = FirstEntry(year);
+        int end = FirstEntry(year + 1);
+        List<HolidayEntry> holidayList = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            long entry = Entry(i);
+            if (filter.Matches(HolidayType.FromValue(Type(entry)), Regions(entry))) {
+                holidayList.add(CreateEntry(year, entry));
+            }
+        }
+        return Collections.unmodifiableList(holidayList);
+    }
+
+    private void CheckYear(int year) {
+        if (!Contains(year)) {
+            throw new IllegalArgumentException("Year " + year + " is not in the calendar file (" + firstYear + " - " + GetLastYear() + ")");
+        }
+    }
+
+    // year may be GetLastYear() + 1, which returns the end of the last year
+    private int FirstEntry(int year) {
+        return buffer.getInt(yearTable + 4 * (year - firstYear));
+    }
+
+    // Index of the first entry on or after the day, binary search within the year
+    private int FindDay(int year, int dayOfYear) {
+        int low = FirstEntry(year);
+        int high = FirstEntry(year + 1);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ((Entry(middle) & DAY_BITS) < dayOfYear) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long Entry(int index) {
+        return buffer.getLong(entries + 8 * index);
+    }
+
+    private static int Type(long entry) {
+        return (int) (entry >>> TYPE_SHIFT) & 0x7;
+    }
+
+    private static int Regions(long entry) {
+        return (int) (entry >>> REGION_SHIFT) & REGION_BITS;
+    }
+
+    private static boolean AppliesTo(long entry, FederalState state) {
+        int regions = Regions(entry);
+        return regions == 0 || (state != null && (regions & state.GetMask()) != 0);
+    }
+
+    private HolidayEntry CreateEntry(int year, long entry) {
+        int epochDay = EasterTable.EpochDay(year, 1, 1) + (int) (entry & DAY_BITS) - 1;
+        return new HolidayEntry(epochDay, Name((int) (entry >>> NAME_SHIFT) & 0xFFFF), HolidayType.FromValue(Type(entry)), Regions(entry));
+    }
+
+    private String Name(int index) {
+        String name = names[index];
+        if (name == null) {
+            int start = buffer.getInt(nameTable + 4 * index);
+            int end = buffer.getInt(nameTable + 4 * (index + 1));
+            byte[] bytes = new byte[end - start];
+            buffer.get(nameData + start, bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            names[index] = name;
+        }
+        return name;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("write")) {
+            int first = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_FIRST_YEAR;
+            int last = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_LAST_YEAR;
+            Write(Paths.get(args[1]), first, last);
+            System.out.println("Written " + args[1] + " (" + first + " - " + last + ", " + Files.size(Paths.get(args[1])) + " bytes)");
+        } else if (args.length >= 2 && args[0].equals("check")) {
+            HolidayCalendarFile calendar = Open(Paths.get(args[1]));
+            System.out.println(args[1] + " is valid: " + calendar.GetFirstYear() + " - " + calendar.GetLastYear());
+        } else {
+            System.err.println("Usage: HolidayCalendarFile write <file> [firstYear] [lastYear] | check <file>");
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayCountry
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Holiday queries of one country, backed by a HolidayProvider.
+| The providers are discovered with the ServiceLoader on the first
+| call of Of or GetAvailableCountries. The rules of a country are
+| loaded on its first query, so a process that asks for Germany
+| only never reads the rule files of the other countries.
+|
+| Every country answers through the same path: an own
+| HolidayYearCache of HolidayYearSnapshot instances and their
+| HolidayIndex. Germany shares the HolidayCache with
+| HolidayCalculator and follows HolidayRuleSet.SetActive.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class HolidayCountry {
+
+    private static final int LEGAL_HOLIDAYS = HolidayType.NATIONAL_HOLIDAY.GetMask() | HolidayType.REGIONAL_HOLIDAY.GetMask();
+
+    private static volatile Map<String, HolidayProvider> providers;     // By country code, discovered on first use
+    private static final ConcurrentHashMap<String, HolidayCountry> countries = new ConcurrentHashMap<>();
+
+    private final HolidayProvider provider;
+    private final List<String> regionCodes;
+    private final Map<String, Integer> regionIndexes = new HashMap<>();     // Codes as given and upper case
+    private final boolean german;
+    private final ConcurrentHashMap<Integer, List<String>> regionsByMask = new ConcurrentHashMap<>();
+    private volatile HolidayRuleSet rules;
+    private volatile HolidayYearCache years;
+
+    private HolidayCountry(HolidayProvider provider) {
+        List<String> codes = provider.GetRegionCodes();
+        if (codes.size() > HolidayProvider.MAX_REGIONS) {
+            throw new IllegalArgumentException(provider.GetCountryCode() + " has more than " + HolidayProvider.MAX_REGIONS + " regions");
+        }
+        this.provider = provider;
+        this.regionCodes = List.copyOf(codes);
+        for (int i = 0; i < regionCodes.size(); i++) {
+            regionIndexes.put(regionCodes.get(i), i);
+            regionIndexes.putIfAbsent(regionCodes.get(i).toUpperCase(Locale.ROOT), i);
+        }
+        this.german = provider instanceof GermanHolidayProvider;
+    }
+
+    /**
+     * @param countryCode ISO 3166-1 alpha-2 code, case-insensitive
+     * @return The country, the same instance on every call.
+     * @throws IllegalArgumentException if no provider serves the country
+     */
+    public static HolidayCountry Of(String countryCode) {
+        String code = countryCode.toUpperCase(Locale.ROOT);
+        HolidayCountry country = countries.get(code);
+        if (country != null) {
+            return country;
+        }
+        HolidayProvider provider = Providers().get(code);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown country: " + countryCode);
+        }
+        return countries.computeIfAbsent(code, key -> new HolidayCountry(provider));
+    }
+
+    /**
+     * @return Codes of all countries with a provider, sorted.
+     */
+    public static List<String> GetAvailableCountries() {
+        return List.copyOf(Providers().keySet());
+    }
+
+    private static Map<String, HolidayProvider> Providers() {
+        Map<String, HolidayProvider> found = providers;
+        if (found == null) {
+            synchronized (HolidayCountry.class) {
+                found = providers;
+                if (found == null) {
+                    found = new TreeMap<>();
+                    for (HolidayProvider provider : ServiceLoader.load(HolidayProvider.class, HolidayProvider.class.getClassLoader())) {
+                        // The first provider of a country wins, the class path decides the order
+                        found.putIfAbsent(provider.GetCountryCode().toUpperCase(Locale.ROOT), provider);
+                    }
+                    found = Collections.unmodifiableMap(found);
+                    providers = found;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The rules of the country, loaded on the first call.
+     */
+    public HolidayRuleSet GetRules() {
+        if (german) {
+            return HolidayRuleSet.Active();
+        }
+        HolidayRuleSet loaded = rules;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = rules;
+                if (loaded == null) {
+                    // The entries resolve their regions through this country
+                    loaded = provider.LoadRules().ForCountry(this);
+                    rules = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private HolidayYearCache Years() {
+        if (german) {
+            return HolidayCache.GetYears();
+        }
+        HolidayYearCache cache = years;
+        if (cache == null) {
+            synchronized (this) {
+                cache = years;
+                if (cache == null) {
+                    int regionCount = regionCodes.size();
+                    cache = new HolidayYearCache(this::GetRules, regionCount, HolidayCache.GetCapacity());
+                    years = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param year
+     * @return The immutable snapshot of the year from the cache of the country
+     */
+    public HolidayYearSnapshot GetSnapshot(int year) {
+        CheckYear(year);
+        return Years().GetSnapshot(year);
+    }
+
+    /**
+     * @param year
+     * @return All holidays of the year, sorted by date. The list is read-only.
+     */
+    public List<HolidayEntry> GetHolidays(int year) {
+        return GetSnapshot(year).GetEntries();
+    }
+
+    /**
+     * @param year
+     * @param filter Built with GetFilter, so the state bits match the regions of this country
+     * @return Holidays of the year that pass the filter, sorted by date. The list is read-only.
+     */
+    public List<HolidayEntry> GetHolidays(int year, HolidayFilter filter) {
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        List<HolidayEntry> entries = GetSnapshot(year).GetEntries();
+        if (!filter.IsEmpty()) {
+            List<HolidayEntry> matching = new ArrayList<>();
+            for (HolidayEntry entry : entries) {
+                if (filter.Matches(entry)) {
+                    matching.add(entry);
+                }
+            }
+            entries = Collections.unmodifiableList(matching);
+        }
+        HolidayMetrics.Record(HolidayOperation.GET_HOLIDAYS, started, allocated);
+        return entries;
+    }
+
+    /**
+     * @param regions Region codes of this country, none for all regions
+     * @return Filter that lets the holidays of the regions and the nationwide ones pass.
+     *         Types can be added with WithTypes.
+     * @throws IllegalArgumentException if a region is unknown
+     */
+    public HolidayFilter GetFilter(String... regions) {
+        int mask = 0;
+        for (String region : regions) {
+            mask |= 1 << RegionIndex(region);
+        }
+        return HolidayFilter.ALL.WithMasks(0, mask);
+    }
+
+    /**
+     * @param date
+     * @param region Region code or null for nationwide holidays only
+     * @return True if a national or regional holiday of the region falls on the date.
+     */
+    public boolean IsHoliday(LocalDate date, String region) {
+        int index = RegionIndex(region);
+        if (date.getYear() < CalculateHolidays.MIN_YEAR) {
+            return false;
+        }
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        boolean holiday = Years().GetSnapshot(date.getYear()).GetIndex().Contains(date.getDayOfYear(), index, LEGAL_HOLIDAYS);
+        HolidayMetrics.Record(HolidayOperation.IS_HOLIDAY, started, allocated);
+        return holiday;
+    }
+
+    /**
+     * @param date
+     * @param region Region code or null for nationwide entries only
+     * @return All entries of the date that apply to the region. Read-only, empty if nothing falls on the date.
+     */
+    public List<HolidayEntry> GetHolidaysOn(LocalDate date, String region) {
+        int index = RegionIndex(region);
+        if (date.getYear() < CalculateHolidays.MIN_YEAR) {
+            return List.of();
+        }
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        List<HolidayEntry> entries = Years().GetSnapshot(date.getYear()).GetIndex().GetEntries(date.getDayOfYear(), index);
+        HolidayMetrics.Record(HolidayOperation.HOLIDAYS_ON, started, allocated);
+        return entries;
+    }
+
+    /**
+     * Resolves the mask with the regions of the country. HolidayEntry.GetRegions() of entries of this country
+     * answers through here.
+     * 
+     * @param entry An entry of this country
+     * @return Names of the regions of the entry, empty for nationwide entries. The list is read-only and shared.
+     */
+    public List<String> GetRegions(HolidayEntry entry) {
+        int mask = entry.GetRegionMask();
+        List<String> regions = regionsByMask.get(mask);
+        if (regions == null) {
+            List<String> created = new ArrayList<>();
+            for (int i = 0; i < regionCodes.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    created.add(provider.GetRegionName(regionCodes.get(i)));
+                }
+            }
+            regions = regionsByMask.computeIfAbsent(mask, key -> List.copyOf(created));
+        }
+        return regions;
+    }
+
+    private int RegionIndex(String region) {
+        if (region == null) {
+            return -1;
+        }
+        Integer index = regionIndexes.get(region);
+        if (index == null) {
+            index = regionIndexes.get(region.toUpperCase(Locale.ROOT));
+        }
+        if (index != null) {
+            return index;
+        }
+        throw new IllegalArgumentException("Unknown region of " + GetCountryCode() + ": " + region);
+    }
+
+    private static void CheckYear(int year) {
+        if (year < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + year);
+        }
+    }
+
+    /**
+     * Removes all cached years of the country. For Germany this is HolidayCache.Clear().
+     */
+    public void ClearCache() {
+        Years().Clear();
+    }
+
+    // Gettermethods
+    public String GetCountryCode() {
+        return provider.GetCountryCode().toUpperCase(Locale.ROOT);
+    }
+
+    public String GetName() {
+        return provider.GetName();
+    }
+
+    public HolidayProvider GetProvider() {
+        return provider;
+    }
+
+    public List<String> GetRegionCodes() {
+        return regionCodes;
+    }
+
+    // Code of bit index of the region masks
+    String GetRegionCode(int index) {
+        return regionCodes.get(index);
+    }
+
+    public String GetRegionName(String region) {
+        if (region == null) {
+            throw new IllegalArgumentException("Region must not be null");
+        }
+        return provider.GetRegionName(regionCodes.get(RegionIndex(region)));
+    }
+
+    /**
+     * @return True once the rules of the country have been loaded. Germany is always loaded.
+     */
+    public boolean IsLoaded() {
+        return german || rules != null;
+    }
+
+    public int GetCacheSize() {
+        return Years().GetSize();
+    }
+}
@@ -0,0 +1,115 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayCursor
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Forward-only iteration over the holidays from a start date on,
+| across any number of years. The years are taken one after the
+| other from the HolidayCache, nothing is copied or removed, and
+| no year is touched before the cursor reaches it. A filter that no
+| rule in force from the start year on passes ends the cursor at
+| once, without touching any year.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public final class HolidayCursor implements Iterator<HolidayEntry> {
+
+    // A filter that matches rarely must not search forever. Give up after this many years without a match.
+    static final int MAX_YEARS_WITHOUT_MATCH = 400;
+
+    private final HolidayFilter filter;
+    private int year;
+    private List<HolidayEntry> entries;
+    private int position;
+    private HolidayEntry next;
+    private int yearsWithoutMatch;
+    private boolean exhausted;
+
+    /**
+     * @param start First day, included
+     * @param filter
+     */
+    public HolidayCursor(LocalDate start, HolidayFilter filter) {
+        if (start.getYear() < CalculateHolidays.MIN_YEAR) {
+            start = LocalDate.of(CalculateHolidays.MIN_YEAR, 1, 1);
+        }
+        this.filter = filter;
+        this.year = start.getYear();
+        if (HolidayRuleSet.Active().CanMatch(filter, this.year)) {
+            this.entries = HolidayCache.GetSnapshot(this.year).GetEntries();
+            this.position = FirstPosition(this.entries, (int) start.toEpochDay());
+        } else {
+            this.entries = List.of();
+            this.exhausted = true;
+        }
+    }
+
+    // Binary search for the first entry on or after the epoch day
+    private static int FirstPosition(List<HolidayEntry> entries, int epochDay) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).GetEpochDay() < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (position < entries.size()) {
+                HolidayEntry entry = entries.get(position++);
+                if (filter.Matches(entry)) {
+                    next = entry;
+                    yearsWithoutMatch = 0;
+                }
+                continue;
+            }
+            if (exhausted || ++yearsWithoutMatch > MAX_YEARS_WITHOUT_MATCH) {
+                exhausted = true;
+                return false;
+            }
+            entries = HolidayCache.GetSnapshot(++year).GetEntries();
+            position = 0;
+        }
+        return true;
+    }
+
+    /**
+     * @return The entry the next call of next() returns, without consuming it. Null if there is none.
+     */
+    HolidayEntry Peek() {
+        return hasNext() ? next : null;
+    }
+
+    @Override
+    public HolidayEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        HolidayEntry entry = next;
+        next = null;
+        return entry;
+    }
+}
@@ -0,0 +1,166 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayEntry
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Compact holiday entry. The date is kept as epoch day, the type as
+| enum and the regions as bitmask of FederalState, or of the regions
+| of the HolidayCountry for entries of other countries. The German
+| display date is only formatted when GetDate() is called for the
+| first time, the region names come from lists shared by all entries.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+public class HolidayEntry {
+    private final int _epochDay;
+    private final String _nameOfHoliday;
+    private final HolidayType _holidayType;
+    private final int _regionMask;
+    private final HolidayCountry _country;  // Null for the German states
+    private String _date;   // Formatted on demand. Racing threads compute the same immutable String.
+
+    public HolidayEntry(LocalDate date, String nameOfHoliday, HolidayType holidayType, int regionMask) {
+        this((int) date.toEpochDay(), nameOfHoliday, holidayType, regionMask);
+    }
+
+    HolidayEntry(int epochDay, String nameOfHoliday, HolidayType holidayType, int regionMask) {
+        this(epochDay, nameOfHoliday, holidayType, regionMask, null);
+    }
+
+    HolidayEntry(int epochDay, String nameOfHoliday, HolidayType holidayType, int regionMask, HolidayCountry country) {
+        this._epochDay = epochDay;
+        this._nameOfHoliday = nameOfHoliday;
+        this._holidayType = holidayType;
+        this._regionMask = regionMask;
+        this._country = country;
+    }
+
+    /**
+     * Creates an entry from the string representation.
+     * Region names that are not a FederalState are dropped.
+     */
+    public HolidayEntry(String sortDate, String date, String nameOfHoliday, String holidayType, List<String> regions) {
+        this(LocalDate.parse(sortDate), nameOfHoliday, HolidayType.FromName(holidayType), FederalState.MaskOf(regions));
+        this._date = date;
+    }
+
+    // Gettermethods
+    public String GetSortDate() {
+        return LocalDate.ofEpochDay(_epochDay).toString();
+    }
+
+    public String GetDate() {
+        String date = _date;
+        if (date == null) {
+            date = HolidayFormatter.GERMAN.FormatDate(_epochDay);
+            _date = date;
+        }
+        return date;
+    }
+
+    /**
+     * @param locale
+     * @return Weekday and date in the language of the locale, see HolidayFormatter.Of. Not cached.
+     */
+    public String GetDate(Locale locale) {
+        HolidayFormatter formatter = HolidayFormatter.Of(locale);
+        return formatter == HolidayFormatter.GERMAN ? GetDate() : formatter.FormatDate(_epochDay);
+    }
+
+    public String GetNameOfHoliday() {
+        return _nameOfHoliday;
+    }
+
+    public String GetNameOfHoliday(Locale locale) {
+        return HolidayFormatter.Of(locale).GetName(this);
+    }
+
+    public String GetHolidayType() {
+        return _holidayType.GetName();
+    }
+
+    public String GetHolidayType(Locale locale) {
+        return HolidayFormatter.Of(locale).GetTypeName(_holidayType);
+    }
+
+    /**
+     * @return Full names of the affected states, empty for local holidays. For entries of other countries
+     *         the names of their regions, see HolidayCountry.GetRegions. The list is read-only and shared between entries.
+     */
+    public List<String> GetRegions() {
+        return _country == null ? FederalState.NamesOf(_regionMask) : _country.GetRegions(this);
+    }
+
+    /**
+     * @param locale
+     * @return GetRegions() in the language of the locale. Regions of other countries keep the names of their provider.
+     */
+    public List<String> GetRegions(Locale locale) {
+        return _country == null ? HolidayFormatter.Of(locale).GetRegions(_regionMask) : _country.GetRegions(this);
+    }
+
+    public LocalDate GetLocalDate() {
+        return LocalDate.ofEpochDay(_epochDay);
+    }
+
+    public int GetEpochDay() {
+        return _epochDay;
+    }
+
+    public HolidayType GetType() {
+        return _holidayType;
+    }
+
+    /**
+     * @return Bitmask of FederalState.GetMask(), 0 if the entry applies to all states, HolidayRule.LOCAL for local holidays.
+     *         For entries of other countries bit i is region i of HolidayCountry.GetRegionCodes().
+     */
+    public int GetRegionMask() {
+        return _regionMask;
+    }
+
+    /**
+     * @return True for holidays of single places, e.g. the Augsburg High Peace Festival. They belong to no state,
+     *         HolidayRegions names the places.
+     */
+    public boolean IsLocal() {
+        return _regionMask == HolidayRule.LOCAL;
+    }
+
+    /**
+     * @return The affected German states, empty for local holidays and for entries of other countries.
+     */
+    public EnumSet<FederalState> GetStates() {
+        return _country == null ? FederalState.SetOf(_regionMask) : EnumSet.noneOf(FederalState.class);
+    }
+
+    /**
+     * @return The country of the entry, null for German entries
+     */
+    public HolidayCountry GetCountry() {
+        return _country;
+    }
+
+    /**
+     * @return ISO 3166-1 alpha-2 code of the country of the entry, e.g. "DE"
+     */
+    public String GetCountryCode() {
+        return _country == null ? GermanHolidayProvider.COUNTRY_CODE : _country.GetCountryCode();
+    }
+}
@@ -0,0 +1,55 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayExportFormat
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Output formats of the HolidayExporter.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public enum HolidayExportFormat {
+    ICS("text/calendar", "ics"),
+    CSV("text/csv", "csv"),
+    JSON("application/json", "json");
+
+    private final String mediaType;
+    private final String extension;
+
+    HolidayExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    // Gettermethods
+    public String GetMediaType() {
+        return mediaType;
+    }
+
+    public String GetExtension() {
+        return extension;
+    }
+
+    /**
+     * @param name Format name or file extension, case-insensitive
+     * @return The format or null if the name is unknown.
+     */
+    public static HolidayExportFormat Parse(String name) {
+        for (HolidayExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
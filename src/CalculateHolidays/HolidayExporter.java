@@ -0,0 +1,497 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayExporter
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Streaming writer for holidays as iCalendar (RFC 5545), CSV
+| (RFC 4180) or JSON. Entries are written one by one as they come
+| from a list, a cursor or a lazy range stream; nothing is
+| collected. Text goes through one reused char buffer, dates are
+| written digit by digit without LocalDate or String.format, so a
+| feed over many years runs in constant memory.
+|
+|   try (HolidayExporter exporter = HolidayExporter.Create(HolidayExportFormat.ICS, writer)) {
+|       exporter.WriteAll(calculator.GetHolidaysBetween(from, to, filter));
+|   }
+|
+|   java -cp calculate-holidays.jar CalculateHolidays.HolidayExporter
+|        <ics|csv|json> <fromYear> [toYear] [state] [types]
+|   java -cp calculate-holidays.jar CalculateHolidays.HolidayExporter
+|        feeds <ics|csv|json> <directory> <fromYear> <toYear>
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+public final class HolidayExporter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int ICS_LINE_OCTETS = 75;
+
+    private final HolidayExportFormat format;
+    private final Writer writer;
+    private final String title;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int length;
+    // One iCalendar content line before folding
+    private final StringBuilder line = new StringBuilder(256);
+    private final char[] dateStamp;
+    private boolean started;
+    private boolean finished;
+    private long count;
+
+    private HolidayExporter(HolidayExportFormat format, Writer writer, String title, Clock clock) {
+        this.format = format;
+        this.writer = writer;
+        this.title = title;
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+        this.dateStamp = String.format("%04d%02d%02dT%02d%02d%02dZ", now.getYear(), now.getMonthValue(), now.getDayOfMonth(),
+            now.getHour(), now.getMinute(), now.getSecond()).toCharArray();
+    }
+
+    public static HolidayExporter Create(HolidayExportFormat format, Writer writer) {
+        return new HolidayExporter(format, writer, null, Clock.systemUTC());
+    }
+
+    /**
+     * @param format
+     * @param writer Target, flushed but not closed by Finish()
+     * @param title Calendar name (X-WR-CALNAME) for ICS, ignored by the other formats. May be null.
+     * @param clock Source of the ICS time stamp (DTSTAMP)
+     * @return New exporter
+     */
+    public static HolidayExporter Create(HolidayExportFormat format, Writer writer, String title, Clock clock) {
+        return new HolidayExporter(format, writer, title, clock);
+    }
+
+    /**
+     * Writes UTF-8 to the stream.
+     */
+    public static HolidayExporter Create(HolidayExportFormat format, OutputStream output) {
+        return Create(format, new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    public void Write(HolidayEntry entry) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Export already finished");
+        }
+        if (!started) {
+            WriteHeader();
+        }
+        switch (format) {
+            case ICS:
+                WriteIcs(entry);
+                break;
+            case CSV:
+                WriteCsv(entry);
+                break;
+            case JSON:
+                WriteJson(entry);
+                break;
+        }
+        count++;
+    }
+
+    public void WriteAll(Iterator<HolidayEntry> entries) throws IOException {
+        while (entries.hasNext()) {
+            Write(entries.next());
+        }
+    }
+
+    public void WriteAll(Iterable<HolidayEntry> entries) throws IOException {
+        WriteAll(entries.iterator());
+    }
+
+    /**
+     * Consumes the stream in encounter order, also if it is parallel.
+     */
+    public void WriteAll(Stream<HolidayEntry> entries) throws IOException {
+        try {
+            entries.forEachOrdered(entry -> {
+                try {
+                    Write(entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes the closing part of the format and flushes the writer. Further calls do nothing.
+     */
+    public void Finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (!started) {
+            WriteHeader();
+        }
+        switch (format) {
+            case ICS:
+                IcsLine("END:VCALENDAR");
+                break;
+            case CSV:
+                break;
+            case JSON:
+                Append(']');
+                break;
+        }
+        finished = true;
+        FlushBuffer();
+        writer.flush();
+    }
+
+    /**
+     * Same as Finish(), the writer stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        Finish();
+    }
+
+    // Gettermethods
+    public long GetCount() {
+        return count;
+    }
+
+    public HolidayExportFormat GetFormat() {
+        return format;
+    }
+
+    private void WriteHeader() throws IOException {
+        started = true;
+        switch (format) {
+            case ICS:
+                IcsLine("BEGIN:VCALENDAR");
+                IcsLine("VERSION:2.0");
+                IcsLine("PRODID:-//CalculateHolidays//Feiertage//DE");
+                IcsLine("CALSCALE:GREGORIAN");
+                IcsLine("METHOD:PUBLISH");
+                if (title != null) {
+                    line.setLength(0);
+                    line.append("X-WR-CALNAME:");
+                    IcsText(title);
+                    IcsLine(line);
+                }
+                break;
+            case CSV:
+                Append("date,name,type,typeName,regions\r\n");
+                break;
+            case JSON:
+                Append('[');
+                break;
+        }
+    }
+
+    private void WriteIcs(HolidayEntry entry) throws IOException {
+        int date = CivilDate(entry.GetEpochDay());
+        IcsLine("BEGIN:VEVENT");
+        // Stable UID: same holiday on the same day keeps its UID across exports
+        line.setLength(0);
+        line.append("UID:");
+        BasicDate(line, date);
+        line.append('-').append(Integer.toHexString(entry.GetNameOfHoliday().hashCode())).append("@calculateholidays");
+        IcsLine(line);
+        line.setLength(0);
+        line.append("DTSTAMP:").append(dateStamp);
+        IcsLine(line);
+        line.setLength(0);
+        line.append("DTSTART;VALUE=DATE:");
+        BasicDate(line, date);
+        IcsLine(line);
+        line.setLength(0);
+        line.append("DTEND;VALUE=DATE:");
+        BasicDate(line, CivilDate(entry.GetEpochDay() + 1));
+        IcsLine(line);
+        line.setLength(0);
+        line.append("SUMMARY:");
+        IcsText(entry.GetNameOfHoliday());
+        IcsLine(line);
+        line.setLength(0);
+        line.append("CATEGORIES:");
+        IcsText(entry.GetType().GetName());
+        IcsLine(line);
+        int mask = StateMask(entry);
+        if (mask != 0) {
+            line.setLength(0);
+            line.append("DESCRIPTION:");
+            boolean comma = false;
+            HolidayCountry country = entry.GetCountry();
+            while (mask != 0) {
+                if (comma) {
+                    line.append("\\, ");
+                }
+                int region = Integer.numberOfTrailingZeros(mask);
+                IcsText(country == null ? FederalState.FromOrdinal(region).GetName() : country.GetRegionName(country.GetRegionCode(region)));
+                comma = true;
+                mask &= mask - 1;
+            }
+            IcsLine(line);
+        }
+        IcsLine("TRANSP:TRANSPARENT");
+        IcsLine("END:VEVENT");
+    }
+
+    private void WriteCsv(HolidayEntry entry) throws IOException {
+        IsoDate(CivilDate(entry.GetEpochDay()));
+        Append(',');
+        CsvText(entry.GetNameOfHoliday());
+        Append(',');
+        Append(entry.GetType().name());
+        Append(',');
+        CsvText(entry.GetType().GetName());
+        Append(',');
+        int mask = StateMask(entry);
+        if (Integer.bitCount(mask) > 1) {
+            Append('"');
+        }
+        RegionCodes(mask, entry.GetCountry(), ",", "");
+        if (Integer.bitCount(mask) > 1) {
+            Append('"');
+        }
+        Append("\r\n");
+    }
+
+    private void WriteJson(HolidayEntry entry) throws IOException {
+        Append(count == 0 ? "{\"date\":\"" : ",{\"date\":\"");
+        IsoDate(CivilDate(entry.GetEpochDay()));
+        Append("\",\"name\":");
+        JsonText(entry.GetNameOfHoliday());
+        Append(",\"type\":\"");
+        Append(entry.GetType().name());
+        Append("\",\"typeName\":");
+        JsonText(entry.GetType().GetName());
+        Append(",\"regions\":[");
+        RegionCodes(StateMask(entry), entry.GetCountry(), ",", "\"");
+        Append("]}");
+    }
+
+    // Local holidays carry no state, their places are only known to HolidayRegions
+    private static int StateMask(HolidayEntry entry) {
+        return entry.GetRegionMask() & ~HolidayRule.LOCAL;
+    }
+
+    // Codes of the German states, or of the regions of the country for entries of other countries
+    private void RegionCodes(int mask, HolidayCountry country, String separator, String quote) throws IOException {
+        boolean first = true;
+        while (mask != 0) {
+            if (!first) {
+                Append(separator);
+            }
+            Append(quote);
+            int region = Integer.numberOfTrailingZeros(mask);
+            Append(country == null ? FederalState.FromOrdinal(region).GetCode() : country.GetRegionCode(region));
+            Append(quote);
+            first = false;
+            mask &= mask - 1;
+        }
+    }
+
+    // Escapes TEXT values: backslash, semicolon, comma and line breaks
+    private void IcsText(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == ';' || c == ',') {
+                line.append('\\').append(c);
+            } else if (c == '\n') {
+                line.append("\\n");
+            } else if (c != '\r') {
+                line.append(c);
+            }
+        }
+    }
+
+    private void IcsLine(CharSequence content) throws IOException {
+        // Lines longer than 75 octets are folded: CRLF followed by a space
+        int octets = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            int size = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : 3;
+            if (octets + size > ICS_LINE_OCTETS) {
+                Append("\r\n ");
+                octets = 1;
+            }
+            Append(c);
+            octets += size;
+        }
+        Append("\r\n");
+    }
+
+    private void CsvText(String text) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            Append(text);
+            return;
+        }
+        Append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                Append('"');
+            }
+            Append(c);
+        }
+        Append('"');
+    }
+
+    private void JsonText(String text) throws IOException {
+        Append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                Append('\\');
+                Append(c);
+            } else if (c < 0x20) {
+                Append("\\u00");
+                Append(Character.forDigit(c >> 4, 16));
+                Append(Character.forDigit(c & 0xF, 16));
+            } else {
+                Append(c);
+            }
+        }
+        Append('"');
+    }
+
+    /*---------------------------------------------------------------------
+    | Epoch day to year * 10000 + month * 100 + day, without LocalDate.
+    | Inverse of EasterTable.EpochDay (days-from-civil).
+    +---------------------------------------------------------------------- */
+    static int CivilDate(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    // yyyyMMdd
+    private static void BasicDate(StringBuilder target, int date) {
+        for (int divisor = 10000000; divisor > 0; divisor /= 10) {
+            target.append((char) ('0' + date / divisor % 10));
+        }
+    }
+
+    // yyyy-MM-dd
+    private void IsoDate(int date) throws IOException {
+        for (int divisor = 10000000, position = 0; divisor > 0; divisor /= 10, position++) {
+            if (position == 4 || position == 6) {
+                Append('-');
+            }
+            Append((char) ('0' + date / divisor % 10));
+        }
+    }
+
+    private void Append(char c) throws IOException {
+        if (length == buffer.length) {
+            FlushBuffer();
+        }
+        buffer[length++] = c;
+    }
+
+    private void Append(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            Append(text.charAt(i));
+        }
+    }
+
+    private void FlushBuffer() throws IOException {
+        writer.write(buffer, 0, length);
+        length = 0;
+    }
+
+    /*---------------------------------------------------------------------
+    | Writes one feed per federal state (feiertage-BW.ics, ...) with the
+    | holidays of that state and the nationwide ones. The states are
+    | written one after another, each through a single exporter.
+    +---------------------------------------------------------------------- */
+    public static void WriteFeeds(Path directory, HolidayExportFormat format, int fromYear, int toYear) throws IOException {
+        Files.createDirectories(directory);
+        HolidayCalculator calculator = HolidayCalculator.Create();
+        LocalDate from = LocalDate.of(fromYear, 1, 1);
+        LocalDate to = LocalDate.of(toYear, 12, 31);
+        for (int ordinal = 0; ordinal < FederalState.Count(); ordinal++) {
+            FederalState state = FederalState.FromOrdinal(ordinal);
+            Path file = directory.resolve("feiertage-" + state.GetCode() + "." + format.GetExtension());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                 HolidayExporter exporter = Create(format, writer, "Feiertage " + state.GetName(), Clock.systemUTC())) {
+                exporter.WriteAll(calculator.GetHolidaysBetween(from, to, HolidayFilter.OfStates(state)));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 5 && args[0].equals("feeds") && HolidayExportFormat.Parse(args[1]) != null) {
+            WriteFeeds(Paths.get(args[2]), HolidayExportFormat.Parse(args[1]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+            return;
+        }
+        if (args.length < 2 || HolidayExportFormat.Parse(args[0]) == null) {
+            System.err.println("Usage: HolidayExporter <ics|csv|json> <fromYear> [toYear] [state] [types]");
+            System.err.println("       HolidayExporter feeds <ics|csv|json> <directory> <fromYear> <toYear>");
+            System.exit(2);
+        }
+        HolidayExportFormat format = HolidayExportFormat.Parse(args[0]);
+        int fromYear = Integer.parseInt(args[1]);
+        int toYear = args.length > 2 ? Integer.parseInt(args[2]) : fromYear;
+        HolidayFilter filter = HolidayFilter.ALL;
+        String title = "Feiertage";
+        if (args.length > 3 && !args[3].isEmpty()) {
+            FederalState state = FederalState.Parse(args[3]);
+            if (state == null) {
+                throw new IllegalArgumentException("Unknown state: " + args[3]);
+            }
+            filter = filter.WithStates(state);
+            title = "Feiertage " + state.GetName();
+        }
+        if (args.length > 4) {
+            for (String value : args[4].split(",")) {
+                HolidayType type = HolidayType.FromValue(Integer.parseInt(value.trim()));
+                if (type == null) {
+                    throw new IllegalArgumentException("Unknown holiday type: " + value);
+                }
+                filter = filter.WithTypes(type);
+            }
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (HolidayExporter exporter = Create(format, writer, title, Clock.systemUTC())) {
+            exporter.WriteAll(HolidayCalculator.Create().GetHolidaysBetween(LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31), filter));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayFilter
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Immutable filter for holiday types and federal states, stored as
+| two bitmasks. Every With... method returns a new instance, so a
+| filter can be shared between threads.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public final class HolidayFilter {
+
+    /**
+     * Matches every holiday.
+     */
+    public static final HolidayFilter ALL = new HolidayFilter(0, 0);
+
+    // A state bit that no holiday carries. Used for unknown region names: only nationwide entries pass.
+    static final int UNKNOWN_STATE = 1 << FederalState.Count();
+
+    private final int typeMask;     // 0 = all types
+    private final int stateMask;    // 0 = all states
+
+    private HolidayFilter(int typeMask, int stateMask) {
+        this.typeMask = typeMask;
+        this.stateMask = stateMask;
+    }
+
+    public static HolidayFilter OfTypes(HolidayType... types) {
+        return ALL.WithTypes(types);
+    }
+
+    public static HolidayFilter OfStates(FederalState... states) {
+        return ALL.WithStates(states);
+    }
+
+    /**
+     * @param types Types to add to the filter
+     * @return New filter that additionally lets the given types pass
+     */
+    public HolidayFilter WithTypes(HolidayType... types) {
+        int mask = typeMask;
+        for (HolidayType type : types) {
+            mask |= type.GetMask();
+        }
+        return new HolidayFilter(mask, stateMask);
+    }
+
+    /**
+     * @param states States to add to the filter
+     * @return New filter that additionally lets the holidays of the given states pass
+     */
+    public HolidayFilter WithStates(FederalState... states) {
+        int mask = stateMask;
+        for (FederalState state : states) {
+            mask |= state.GetMask();
+        }
+        return new HolidayFilter(typeMask, mask);
+    }
+
+    public HolidayFilter WithoutTypes() {
+        return typeMask == 0 ? this : new HolidayFilter(0, stateMask);
+    }
+
+    public HolidayFilter WithoutStates() {
+        return stateMask == 0 ? this : new HolidayFilter(typeMask, 0);
+    }
+
+    HolidayFilter WithMasks(int typeMask, int stateMask) {
+        return new HolidayFilter(typeMask, stateMask);
+    }
+
+    /**
+     * Evaluates the filter on the metadata of a holiday, before the holiday itself is calculated.
+     * Holidays without regions apply to every state and pass any state filter.
+     * 
+     * @param type
+     * @param regionMask Bitmask of FederalState.GetMask(), 0 = all states
+     * @return True if the holiday passes the filter.
+     */
+    public boolean Matches(HolidayType type, int regionMask) {
+        return (typeMask == 0 || (typeMask & type.GetMask()) != 0)
+            && (stateMask == 0 || regionMask == 0 || (regionMask & stateMask) != 0);
+    }
+
+    public boolean Matches(HolidayEntry entry) {
+        return Matches(entry.GetType(), entry.GetRegionMask());
+    }
+
+    // Gettermethods
+    public int GetTypeMask() {
+        return typeMask;
+    }
+
+    public int GetStateMask() {
+        return stateMask;
+    }
+
+    public boolean IsEmpty() {
+        return typeMask == 0 && stateMask == 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof HolidayFilter)) {
+            return false;
+        }
+        HolidayFilter filter = (HolidayFilter) other;
+        return typeMask == filter.typeMask && stateMask == filter.stateMask;
+    }
+
+    @Override
+    public int hashCode() {
+        return typeMask * 31 + stateMask;
+    }
+}
@@ -0,0 +1,48 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayFilterEvent
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JDK Flight Recorder event of one filter run over a cached year
+| in HolidayCalculator.GetHolidays.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("CalculateHolidays.Filter")
+@Label("Holiday Filter")
+@Category("CalculateHolidays")
+@Description("Type and region filter applied to the holidays of one year")
+final class HolidayFilterEvent extends Event {
+
+    @Label("Year")
+    int year;
+
+    @Label("Type Mask")
+    int typeMask;
+
+    @Label("State Mask")
+    int stateMask;
+
+    @Label("Entries")
+    int entries;
+
+    @Label("Matches")
+    int matches;
+}
@@ -0,0 +1,202 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayFormatter
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Display strings of holidays for one language. Date formatter,
+| weekday names and the name tables are built once per language
+| and shared; instances are immutable and thread-safe.
+|
+| German is built in (names as in the rule file). Other languages
+| are read from the resource holiday-names-<language>.properties,
+| English is included. Languages without resource fall back to
+| German.
+|
+| Nothing is formatted before a display string is requested:
+| HolidayEntry keeps epoch day, type and region mask only.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class HolidayFormatter {
+
+    private static final String RESOURCE_PREFIX = "holiday-names-";
+    private static final String GERMAN_PATTERN = "dd.MM.yyyy";
+    private static final ConcurrentHashMap<String, HolidayFormatter> formatters = new ConcurrentHashMap<>();
+
+    public static final HolidayFormatter GERMAN = new HolidayFormatter(Locale.GERMAN, new Properties());
+    public static final HolidayFormatter ENGLISH = Of(Locale.ENGLISH);
+
+    private final Locale locale;
+    private final DateTimeFormatter dateFormatter;
+    private final String[] weekdays = new String[7];
+    private final String[] typeNames = new String[HolidayType.Count()];
+    private final String[] stateNames = new String[FederalState.Count()];
+    private final Map<String, String> namesById;
+    private final ConcurrentHashMap<Integer, List<String>> regionsByMask = new ConcurrentHashMap<>();
+    private volatile NameTable names;
+
+    private HolidayFormatter(Locale locale, Properties texts) {
+        this.locale = locale;
+        this.dateFormatter = DateTimeFormatter.ofPattern(texts.getProperty("date.pattern", GERMAN_PATTERN), locale);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            weekdays[day.ordinal()] = day.getDisplayName(TextStyle.FULL, locale);
+        }
+        for (int i = 0; i < typeNames.length; i++) {
+            HolidayType type = HolidayType.FromValue(i);
+            typeNames[i] = texts.getProperty("type." + type.name(), type.GetName());
+        }
+        for (int i = 0; i < stateNames.length; i++) {
+            FederalState state = FederalState.FromOrdinal(i);
+            stateNames[i] = texts.getProperty("state." + state.GetCode(), state.GetName());
+        }
+        Map<String, String> byId = new HashMap<>();
+        for (String key : texts.stringPropertyNames()) {
+            if (key.startsWith("holiday.")) {
+                byId.put(key.substring("holiday.".length()), texts.getProperty(key));
+            }
+        }
+        this.namesById = byId;
+    }
+
+    /**
+     * @param locale Only the language is used
+     * @return The shared formatter of the language, GERMAN if there is no name resource for it.
+     */
+    public static HolidayFormatter Of(Locale locale) {
+        String language = locale.getLanguage();
+        if (language.isEmpty() || language.equals(Locale.GERMAN.getLanguage())) {
+            return GERMAN;
+        }
+        return formatters.computeIfAbsent(language, HolidayFormatter::Load);
+    }
+
+    private static HolidayFormatter Load(String language) {
+        try (InputStream stream = HolidayFormatter.class.getResourceAsStream(RESOURCE_PREFIX + language + ".properties")) {
+            if (stream == null) {
+                return GERMAN;
+            }
+            Properties texts = new Properties();
+            texts.load(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            return new HolidayFormatter(Locale.forLanguageTag(language), texts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param epochDay
+     * @return Weekday and date, e.g. "Mittwoch, 25.12.2024" or "Wednesday, 25 December 2024"
+     */
+    public String FormatDate(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return weekdays[date.getDayOfWeek().ordinal()] + ", " + dateFormatter.format(date);
+    }
+
+    public String FormatDate(HolidayEntry entry) {
+        return FormatDate(entry.GetEpochDay());
+    }
+
+    public String GetWeekday(DayOfWeek day) {
+        return weekdays[day.ordinal()];
+    }
+
+    /**
+     * @param entry
+     * @return The translated name. Holidays of custom rules without translation keep their name.
+     */
+    public String GetName(HolidayEntry entry) {
+        if (namesById.isEmpty()) {
+            return entry.GetNameOfHoliday();
+        }
+        NameTable table = names;
+        HolidayRuleSet rules = HolidayRuleSet.Active();
+        if (table == null || table.rules != rules) {
+            table = new NameTable(rules, namesById);
+            names = table;
+        }
+        return table.byGermanName.getOrDefault(entry.GetNameOfHoliday(), entry.GetNameOfHoliday());
+    }
+
+    public String GetTypeName(HolidayType type) {
+        return typeNames[type.ordinal()];
+    }
+
+    public String GetStateName(FederalState state) {
+        return stateNames[state.ordinal()];
+    }
+
+    /**
+     * @param mask Bitmask of FederalState.GetMask() values
+     * @return Translated names of the states. The read-only list is created once per mask and then shared.
+     */
+    public List<String> GetRegions(int mask) {
+        List<String> regions = regionsByMask.get(mask);
+        if (regions == null) {
+            List<String> created = new ArrayList<>();
+            for (int i = 0; i < stateNames.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    created.add(stateNames[i]);
+                }
+            }
+            regions = regionsByMask.computeIfAbsent(mask, key -> List.copyOf(created));
+        }
+        return regions;
+    }
+
+    // Gettermethods
+    public Locale GetLocale() {
+        return locale;
+    }
+
+    /*---------------------------------------------------------------------
+    | Translation by the German name of the entry. The names come from
+    | the rule set, so the table is rebuilt when the active rules change.
+    +---------------------------------------------------------------------- */
+    private static final class NameTable {
+        final HolidayRuleSet rules;
+        final Map<String, String> byGermanName = new HashMap<>();
+
+        NameTable(HolidayRuleSet rules, Map<String, String> namesById) {
+            this.rules = rules;
+            Add(HolidayRuleSet.Default(), namesById);
+            Add(rules, namesById);
+        }
+
+        private void Add(HolidayRuleSet ruleSet, Map<String, String> namesById) {
+            for (HolidayRule rule : ruleSet.GetRules()) {
+                String name = namesById.get(rule.GetId());
+                if (name != null) {
+                    byGermanName.put(rule.GetName(), name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayIndex
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Day-of-year bitsets of one year, one per federal state and
+| holiday type, plus the entries of every day per state. Indexes
+| of other countries (HolidayCountry) use their regions instead
+| of the states.
+| Answers "is this day a holiday in state X" with a single array
+| access. Also holds the cumulative working days per state for
+| WorkingDayCalculator. Built once per HolidayYearSnapshot.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final class HolidayIndex {
+
+    static final int DAYS = 366;
+    static final int WORDS = (DAYS + 63) / 64;
+    static final int TYPES = HolidayType.Count();
+    // The states use their ordinal as slot. The last slot holds the entries without regions (nationwide).
+    static final int NATIONWIDE = FederalState.Count();
+    static final int SLOTS = NATIONWIDE + 1;
+
+    private final int year;
+    private final int nationwide;                       // Number of regions, slot of the nationwide entries
+    private final int lengthOfYear;
+    private final long[] bits;                          // [(slot * TYPES + type) * WORDS + word]
+    private final List<List<HolidayEntry>> entriesByDay; // [slot * DAYS + dayOfYear - 1]
+    private final short[] workingDays;                  // [slot * (DAYS + 1) + dayOfYear], cumulative
+    private final long[] workingBits;                   // [slot * WORDS + word], bit n = day of year n + 1 is a working day
+
+    private HolidayIndex(int year, int regionCount, long[] bits, List<List<HolidayEntry>> entriesByDay) {
+        this.year = year;
+        this.nationwide = regionCount;
+        this.lengthOfYear = Year.isLeap(year) ? 366 : 365;
+        this.bits = bits;
+        this.entriesByDay = entriesByDay;
+        this.workingBits = new long[(regionCount + 1) * WORDS];
+        this.workingDays = BuildWorkingDays();
+    }
+
+    /*---------------------------------------------------------------------
+    | Prefix sums of the working days per slot. Entry n holds the number
+    | of working days from January 1st up to and including day n of the
+    | year, entry 0 is always 0. Weekends and every national or regional
+    | holiday of the slot are days off.
+    +---------------------------------------------------------------------- */
+    private short[] BuildWorkingDays() {
+        int slots = nationwide + 1;
+        short[] prefix = new short[slots * (DAYS + 1)];
+        int firstDayOfWeek = LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1; // 0 = Monday
+        for (int slot = 0; slot < slots; slot++) {
+            int national = (slot * TYPES + HolidayType.NATIONAL_HOLIDAY.GetValue()) * WORDS;
+            int regional = (slot * TYPES + HolidayType.REGIONAL_HOLIDAY.GetValue()) * WORDS;
+            int base = slot * (DAYS + 1);
+            int count = 0;
+            for (int day = 0; day < DAYS; day++) {
+                if (day < lengthOfYear && (firstDayOfWeek + day) % 7 < 5
+                        && ((bits[national + (day >>> 6)] | bits[regional + (day >>> 6)]) & (1L << day)) == 0) {
+                    count++;
+                    workingBits[slot * WORDS + (day >>> 6)] |= 1L << day;
+                }
+                prefix[base + day + 1] = (short) count;
+            }
+        }
+        return prefix;
+    }
+
+    static HolidayIndex Build(int year, List<HolidayEntry> entries) {
+        return Build(year, entries, FederalState.Count());
+    }
+
+    /**
+     * @param year
+     * @param entries
+     * @param regionCount Number of regions of the country, bit i of a region mask is region i
+     */
+    static HolidayIndex Build(int year, List<HolidayEntry> entries, int regionCount) {
+        int slots = regionCount + 1;
+        long[] bits = new long[slots * TYPES * WORDS];
+        List<List<HolidayEntry>> byDay = new ArrayList<>(Collections.nCopies(slots * DAYS, List.of()));
+        for (HolidayEntry entry : entries) {
+            int day = entry.GetLocalDate().getDayOfYear() - 1;
+            int type = entry.GetType().GetValue();
+            for (int slot = 0; slot < slots; slot++) {
+                if (!AppliesTo(entry, slot, regionCount)) {
+                    continue;
+                }
+                bits[(slot * TYPES + type) * WORDS + (day >>> 6)] |= 1L << day;
+                int position = slot * DAYS + day;
+                List<HolidayEntry> dayEntries = byDay.get(position);
+                HolidayEntry[] extended = dayEntries.toArray(new HolidayEntry[dayEntries.size() + 1]);
+                extended[dayEntries.size()] = entry;
+                byDay.set(position, List.of(extended));
+            }
+        }
+        return new HolidayIndex(year, regionCount, bits, byDay);
+    }
+
+    private static boolean AppliesTo(HolidayEntry entry, int slot, int nationwide) {
+        if (entry.GetRegionMask() == 0) {
+            return true;
+        }
+        return slot != nationwide && (entry.GetRegionMask() & (1 << slot)) != 0;
+    }
+
+    private int Slot(FederalState state) {
+        return state == null ? nationwide : state.ordinal();
+    }
+
+    private int Slot(int region) {
+        return region < 0 ? nationwide : region;
+    }
+
+    /**
+     * @param dayOfYear 1 - 366
+     * @param state The state or null for holidays that apply everywhere.
+     * @param typeMask Bitwise OR of HolidayType.GetMask()
+     * @return True if at least one holiday of the given types falls on the day.
+     */
+    boolean Contains(int dayOfYear, FederalState state, int typeMask) {
+        return ContainsInSlot(dayOfYear, Slot(state), typeMask);
+    }
+
+    /**
+     * @param dayOfYear 1 - 366
+     * @param region Index of the region, -1 for holidays that apply everywhere.
+     * @param typeMask Bitwise OR of HolidayType.GetMask()
+     * @return True if at least one holiday of the given types falls on the day.
+     */
+    boolean Contains(int dayOfYear, int region, int typeMask) {
+        return ContainsInSlot(dayOfYear, Slot(region), typeMask);
+    }
+
+    private boolean ContainsInSlot(int dayOfYear, int slot, int typeMask) {
+        int day = dayOfYear - 1;
+        int base = slot * TYPES * WORDS + (day >>> 6);
+        long bit = 1L << day;
+        for (int type = 0; type < TYPES; type++) {
+            if ((typeMask & (1 << type)) != 0 && (bits[base + type * WORDS] & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param dayOfYear 1 - 366
+     * @param state The state or null for holidays that apply everywhere.
+     * @return All entries of the day that apply to the state. The list is read-only.
+     */
+    List<HolidayEntry> GetEntries(int dayOfYear, FederalState state) {
+        return entriesByDay.get(Slot(state) * DAYS + dayOfYear - 1);
+    }
+
+    /**
+     * @param dayOfYear 1 - 366
+     * @param region Index of the region, -1 for holidays that apply everywhere.
+     * @return All entries of the day that apply to the region. The list is read-only.
+     */
+    List<HolidayEntry> GetEntries(int dayOfYear, int region) {
+        return entriesByDay.get(Slot(region) * DAYS + dayOfYear - 1);
+    }
+
+    /**
+     * @return A copy of the bitset of one state and type, bit n = day of year n + 1.
+     */
+    long[] GetDays(FederalState state, HolidayType type) {
+        int from = (Slot(state) * TYPES + type.GetValue()) * WORDS;
+        return Arrays.copyOfRange(bits, from, from + WORDS);
+    }
+
+    /**
+     * @param state The state or null for nationwide holidays only.
+     * @param dayOfYear 0 - 366, 0 returns 0.
+     * @return Number of working days from January 1st up to and including the day.
+     */
+    int CountWorkingDays(FederalState state, int dayOfYear) {
+        return workingDays[Slot(state) * (DAYS + 1) + dayOfYear];
+    }
+
+    int CountWorkingDays(FederalState state) {
+        return CountWorkingDays(state, lengthOfYear);
+    }
+
+    /**
+     * Binary search over the prefix sums.
+     * 
+     * @param state The state or null for nationwide holidays only.
+     * @param count 1 - CountWorkingDays(state)
+     * @return The day of year of the count-th working day of the year.
+     */
+    int FindWorkingDay(FederalState state, int count) {
+        int base = Slot(state) * (DAYS + 1);
+        int low = 1;
+        int high = lengthOfYear;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (workingDays[base + middle] < count) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param state The state or null for nationwide holidays only.
+     * @param dayOfYear First day, 1 - 366
+     * @param length 1 - 32 days, not beyond the end of the year
+     * @return Bit n set if day dayOfYear + n is a working day.
+     */
+    int GetWorkingDayBits(FederalState state, int dayOfYear, int length) {
+        int day = dayOfYear - 1;
+        int base = Slot(state) * WORDS;
+        long word = workingBits[base + (day >>> 6)] >>> (day & 63);
+        int shift = 64 - (day & 63);
+        if (shift < length) {
+            word |= workingBits[base + (day >>> 6) + 1] << shift;
+        }
+        return (int) (length == 32 ? word : word & ((1L << length) - 1));
+    }
+
+    int GetYear() {
+        return year;
+    }
+
+    int GetLengthOfYear() {
+        return lengthOfYear;
+    }
+}
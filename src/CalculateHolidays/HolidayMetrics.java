@@ -0,0 +1,356 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayMetrics
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Optional, process-wide instrumentation of the query methods:
+| call counts, latency histograms and allocated bytes per
+| HolidayOperation. Disabled by default; then every measured call
+| costs one volatile read. Enable with SetEnabled(true) or
+| -DCalculateHolidays.metrics=true. The values can be read here,
+| through HolidayMetricsListener or as JMX MBean.
+|
+| Nested calls are measured each on their own, e.g.
+| GetHolidaysFullList contains one GET_HOLIDAYS call and possibly
+| one YEAR_COMPUTATION.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class HolidayMetrics {
+
+    public static final String OBJECT_NAME = "CalculateHolidays:type=HolidayMetrics";
+
+    private static final Histogram[] histograms = new Histogram[HolidayOperation.Count()];
+    private static final List<HolidayMetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private static final com.sun.management.ThreadMXBean threads = AllocationBean();
+    private static volatile boolean enabled = Boolean.getBoolean("CalculateHolidays.metrics");
+
+    static {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+    }
+
+    private HolidayMetrics() {
+    }
+
+    public static void SetEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * @param listener Called on the thread of the query. A listener that throws is removed, the query is not affected.
+     */
+    public static void AddListener(HolidayMetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void RemoveListener(HolidayMetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Registers the HolidayMetricsMXBean with the platform MBean server. Further calls do nothing.
+     *
+     * @return The name of the MBean
+     */
+    public static synchronized ObjectName RegisterMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new MXBean(), name);
+        }
+        return name;
+    }
+
+    /**
+     * Resets all counters and histograms. The HolidayCache statistics are kept.
+     */
+    public static void ResetStatistics() {
+        for (Histogram histogram : histograms) {
+            histogram.Reset();
+        }
+    }
+
+    /*---------------------------------------------------------------------
+    | Measuring. The callers keep both start values in locals:
+    |
+    |   long started = HolidayMetrics.Start();
+    |   long allocated = HolidayMetrics.StartAllocation();
+    |   ...
+    |   HolidayMetrics.Record(HolidayOperation.X, started, allocated);
+    +---------------------------------------------------------------------- */
+    static long Start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    static long StartAllocation() {
+        return enabled && threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    static void Record(HolidayOperation operation, long started, long allocated) {
+        if (started != 0) {
+            Add(operation, System.nanoTime() - started, allocated);
+        }
+    }
+
+    static void RecordYear(int year, int entries, long started, long allocated) {
+        if (started == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - started;
+        Add(HolidayOperation.YEAR_COMPUTATION, nanos, allocated);
+        for (HolidayMetricsListener listener : listeners) {
+            try {
+                listener.OnYearComputed(year, entries, nanos);
+            } catch (RuntimeException e) {
+                Drop(listener, e);
+            }
+        }
+    }
+
+    private static void Add(HolidayOperation operation, long nanos, long allocated) {
+        long bytes = allocated < 0 ? -1 : threads.getCurrentThreadAllocatedBytes() - allocated;
+        histograms[operation.ordinal()].Add(nanos, bytes);
+        for (HolidayMetricsListener listener : listeners) {
+            try {
+                listener.OnOperation(operation, nanos, bytes);
+            } catch (RuntimeException e) {
+                Drop(listener, e);
+            }
+        }
+    }
+
+    // Metrics must not change query results: a throwing listener is removed and reported like an uncaught exception
+    private static void Drop(HolidayMetricsListener listener, RuntimeException failure) {
+        if (listeners.remove(listener)) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean AllocationBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError e) {
+            // jdk.management is not part of the runtime image
+        }
+        return null;
+    }
+
+    // Gettermethods
+    public static boolean IsEnabled() {
+        return enabled;
+    }
+
+    public static long GetCount(HolidayOperation operation) {
+        return histograms[operation.ordinal()].count.sum();
+    }
+
+    public static long GetTotalNanos(HolidayOperation operation) {
+        return histograms[operation.ordinal()].totalNanos.sum();
+    }
+
+    /**
+     * @return Average duration, 0 if there were no calls yet.
+     */
+    public static long GetMeanNanos(HolidayOperation operation) {
+        Histogram histogram = histograms[operation.ordinal()];
+        long count = histogram.count.sum();
+        return count == 0 ? 0 : histogram.totalNanos.sum() / count;
+    }
+
+    public static long GetMaxNanos(HolidayOperation operation) {
+        return histograms[operation.ordinal()].maxNanos.get();
+    }
+
+    /**
+     * The histogram uses power-of-two buckets, the result is the upper bound of the bucket
+     * holding the percentile, i.e. at most twice the exact value.
+     *
+     * @param operation
+     * @param percentile 0.0 - 1.0, e.g. 0.99
+     * @return Duration in nanoseconds, 0 if there were no calls yet.
+     */
+    public static long GetPercentileNanos(HolidayOperation operation, double percentile) {
+        return histograms[operation.ordinal()].Percentile(percentile);
+    }
+
+    /**
+     * @return Bytes allocated by all calls together, 0 if the JVM cannot measure allocations.
+     */
+    public static long GetAllocatedBytes(HolidayOperation operation) {
+        return histograms[operation.ordinal()].allocatedBytes.sum();
+    }
+
+    /*---------------------------------------------------------------------
+    | Counters of one operation. Bucket i counts durations below 2^i ns.
+    +---------------------------------------------------------------------- */
+    private static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void Add(long nanos, long bytes) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (bytes > 0) {
+                allocatedBytes.add(bytes);
+            }
+            buckets[nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+        }
+
+        long Percentile(double percentile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : Math.min((1L << i) - 1, maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        void Reset() {
+            count.reset();
+            totalNanos.reset();
+            allocatedBytes.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+
+    private static final class MXBean implements HolidayMetricsMXBean {
+
+        private static Map<String, Long> PerOperation(ToLongFunction<HolidayOperation> value) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (int i = 0; i < HolidayOperation.Count(); i++) {
+                HolidayOperation operation = HolidayOperation.FromOrdinal(i);
+                values.put(operation.name(), value.applyAsLong(operation));
+            }
+            return values;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return IsEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enable) {
+            SetEnabled(enable);
+        }
+
+        @Override
+        public Map<String, Long> getCallCounts() {
+            return PerOperation(HolidayMetrics::GetCount);
+        }
+
+        @Override
+        public Map<String, Long> getMeanNanos() {
+            return PerOperation(HolidayMetrics::GetMeanNanos);
+        }
+
+        @Override
+        public Map<String, Long> getP50Nanos() {
+            return PerOperation(operation -> GetPercentileNanos(operation, 0.5));
+        }
+
+        @Override
+        public Map<String, Long> getP99Nanos() {
+            return PerOperation(operation -> GetPercentileNanos(operation, 0.99));
+        }
+
+        @Override
+        public Map<String, Long> getMaxNanos() {
+            return PerOperation(HolidayMetrics::GetMaxNanos);
+        }
+
+        @Override
+        public Map<String, Long> getAllocatedBytes() {
+            return PerOperation(HolidayMetrics::GetAllocatedBytes);
+        }
+
+        @Override
+        public long getCacheHitCount() {
+            return HolidayCache.GetHitCount();
+        }
+
+        @Override
+        public long getCacheMissCount() {
+            return HolidayCache.GetMissCount();
+        }
+
+        @Override
+        public long getCacheEvictionCount() {
+            return HolidayCache.GetEvictionCount();
+        }
+
+        @Override
+        public double getCacheHitRate() {
+            return HolidayCache.GetHitRate();
+        }
+
+        @Override
+        public int getCacheSize() {
+            return HolidayCache.GetSize();
+        }
+
+        @Override
+        public void resetStatistics() {
+            ResetStatistics();
+        }
+    }
+}
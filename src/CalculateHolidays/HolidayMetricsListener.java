@@ -0,0 +1,41 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayMetricsListener
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Receives every measurement of HolidayMetrics while it is enabled.
+| Called on the thread that ran the operation, so implementations
+| must be thread-safe and fast.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public interface HolidayMetricsListener {
+
+    /**
+     * @param operation
+     * @param nanos Duration of the call
+     * @param allocatedBytes Bytes allocated by the calling thread during the call, -1 if the JVM cannot measure it.
+     */
+    void OnOperation(HolidayOperation operation, long nanos, long allocatedBytes);
+
+    /**
+     * Called after a year was calculated for the HolidayCache, in addition to OnOperation.
+     * 
+     * @param year
+     * @param entries Number of entries of the year
+     * @param nanos Duration of the calculation
+     */
+    default void OnYearComputed(int year, int entries, long nanos) {
+    }
+}
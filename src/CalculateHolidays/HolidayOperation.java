@@ -0,0 +1,56 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayOperation
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The operations measured by HolidayMetrics.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public enum HolidayOperation {
+    FULL_LIST("CalculateHolidays.GetHolidaysFullList"),
+    FUTURED_LIST("CalculateHolidays.GetFuturedHolidaysList"),
+    SINGLE_HOLIDAY("CalculateHolidays.Get<Holiday>"),
+    GET_HOLIDAYS("HolidayCalculator.GetHolidays"),
+    HOLIDAYS_BETWEEN("HolidayCalculator.GetHolidaysBetween"),
+    UPCOMING_HOLIDAYS("HolidayCalculator.GetUpcomingHolidays"),
+    IS_HOLIDAY("HolidayCalculator.IsHoliday"),
+    HOLIDAYS_ON("HolidayCalculator.GetHolidaysOn"),
+    YEAR_COMPUTATION("HolidayYearSnapshot.Build");
+
+    private static final HolidayOperation[] VALUES = values();
+
+    private final String method;
+
+    HolidayOperation(String method) {
+        this.method = method;
+    }
+
+    // Gettermethods
+
+    /**
+     * @return The measured method. The static methods of CalculateHolidays delegate to HolidayCalculator.
+     */
+    public String GetMethod() {
+        return method;
+    }
+
+    public static HolidayOperation FromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int Count() {
+        return VALUES.length;
+    }
+}
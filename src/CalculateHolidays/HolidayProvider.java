@@ -0,0 +1,62 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayProvider
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Holidays of one country. Implementations are found with the
+| ServiceLoader through META-INF/services and used by
+| HolidayCountry. They are instantiated on discovery, so the
+| constructor must be cheap: rule tables are read in LoadRules,
+| which HolidayCountry calls once, on the first query of the
+| country.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.List;
+
+public interface HolidayProvider {
+
+    /**
+     * Region masks are int bitsets, one bit per region.
+     */
+    int MAX_REGIONS = 31;
+
+    /**
+     * @return ISO 3166-1 alpha-2 code, e.g. "DE"
+     */
+    String GetCountryCode();
+
+    String GetName();
+
+    /**
+     * @return Codes of the regions (states, cantons) in a fixed order: region i is bit i of
+     *         the region masks of the rules. At most MAX_REGIONS.
+     */
+    List<String> GetRegionCodes();
+
+    /**
+     * @param code One of GetRegionCodes()
+     * @return Display name of the region
+     */
+    default String GetRegionName(String code) {
+        return code;
+    }
+
+    /**
+     * Reads the rules of the country. Called once, on the first query.
+     * 
+     * @return The compiled rules, region masks as described at GetRegionCodes()
+     */
+    HolidayRuleSet LoadRules();
+}
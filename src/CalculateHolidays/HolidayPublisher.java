@@ -0,0 +1,204 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayPublisher
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Flow.Publisher of the holidays from a start date on, without
+| end. Every subscriber gets its own HolidayCursor, so the years
+| are taken from the HolidayCache only when the subscriber has
+| requested the holidays in them. Nothing is buffered: onNext is
+| called only for requested holidays, the cursor reads ahead one
+| entry at most.
+|
+| Immediate: the holidays are emitted as soon as they are
+| requested, on the thread calling request().
+| Real time: a holiday is emitted at midnight of its day, in the
+| time zone of the clock of the HolidayScheduler. Each subscriber
+| registers one job at midnight with the scheduler; holidays that
+| fall due without demand follow on the next request().
+|
+| Signals of one subscription never overlap. A request() from
+| within onNext() only adds demand, the running loop emits it, so
+| the stack does not grow.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class HolidayPublisher implements Flow.Publisher<HolidayEntry> {
+
+    private static final JobSchedule MIDNIGHT = JobSchedule.Cron("0 0 * * *", null, JobSchedule.HolidayPolicy.RUN);
+
+    private final LocalDate start;             // null = today of the scheduler clock at subscription
+    private final HolidayFilter filter;
+    private final HolidayScheduler scheduler;  // null = immediate
+
+    private HolidayPublisher(LocalDate start, HolidayFilter filter, HolidayScheduler scheduler) {
+        this.start = start;
+        this.filter = filter;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param start First day, included
+     * @param filter
+     * @return Publisher that emits the holidays as fast as they are requested.
+     */
+    public static HolidayPublisher From(LocalDate start, HolidayFilter filter) {
+        return new HolidayPublisher(start, filter, null);
+    }
+
+    /**
+     * @param clock Source of "today", today is included
+     * @param filter
+     * @return Publisher that emits the holidays from today on as fast as they are requested.
+     */
+    public static HolidayPublisher Upcoming(Clock clock, HolidayFilter filter) {
+        return From(LocalDate.now(clock), filter);
+    }
+
+    /**
+     * @param scheduler Provides the clock and runs the midnight jobs. Each subscriber starts with today,
+     *        the holidays of today are emitted at once.
+     * @param filter
+     * @return Publisher that emits each holiday at midnight of its day.
+     */
+    public static HolidayPublisher RealTime(HolidayScheduler scheduler, HolidayFilter filter) {
+        return new HolidayPublisher(null, filter, Objects.requireNonNull(scheduler, "scheduler"));
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super HolidayEntry> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        LocalDate first = start != null ? start : LocalDate.now(scheduler.GetClock());
+        Subscription subscription = new Subscription(subscriber, new HolidayCursor(first, filter));
+        subscriber.onSubscribe(subscription);
+        if (scheduler != null && !subscription.cancelled) {
+            subscription.job = scheduler.Schedule("HolidayPublisher", MIDNIGHT, subscription::Drain);
+            if (subscription.cancelled) {
+                subscription.job.Cancel();
+            }
+        }
+    }
+
+    // Gettermethods
+    public HolidayFilter GetFilter() {
+        return filter;
+    }
+
+    public boolean IsRealTime() {
+        return scheduler != null;
+    }
+
+    private final class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super HolidayEntry> subscriber;
+        private final HolidayCursor cursor;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile Throwable error;
+        volatile boolean cancelled;
+        volatile ScheduledJob job;
+
+        Subscription(Flow.Subscriber<? super HolidayEntry> subscriber, HolidayCursor cursor) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Request must be positive: " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            Drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            ScheduledJob scheduled = job;
+            if (scheduled != null) {
+                scheduled.Cancel();
+            }
+        }
+
+        /*---------------------------------------------------------------------
+        | Emits as far as demand and, in real time, today allow. Only one
+        | thread runs the loop; calls during the run count as missed work
+        | and make the running thread go round again.
+        +---------------------------------------------------------------------- */
+        void Drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!cancelled) {
+                    Emit();
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void Emit() {
+            Throwable failure = error;
+            if (failure != null) {
+                cancel();
+                subscriber.onError(failure);
+                return;
+            }
+            long demand = requested.get();
+            long emitted = 0;
+            while (emitted != demand && !cancelled) {
+                HolidayEntry next;
+                long today;
+                try {
+                    today = scheduler == null ? Long.MAX_VALUE : LocalDate.now(scheduler.GetClock()).toEpochDay();
+                    next = cursor.Peek();
+                } catch (RuntimeException e) {
+                    // The year could not be calculated: the subscription ends with the failure
+                    cancel();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (next == null) {
+                    cancel();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (next.GetEpochDay() > today) {
+                    break;
+                }
+                cursor.next();  // The peeked entry, already calculated
+                try {
+                    subscriber.onNext(next);
+                } catch (RuntimeException e) {
+                    // The subscriber broke the contract; the subscription ends, the scheduler thread goes on
+                    cancel();
+                    return;
+                }
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayRangeSpliterator
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Lazy, splittable iteration over the holidays between two dates.
+| A year is fetched from the HolidayCache only when the iteration
+| reaches it. Splitting divides the remaining years in halves, so
+| parallel streams over centuries spread evenly.
+|
+| Without filter the size is exact: the years in between have as
+| many entries as the rule set shows in them (the number changes
+| with the years a rule is in force), only the two boundary years
+| are counted.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+final class HolidayRangeSpliterator implements Spliterator<HolidayEntry> {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int fromEpochDay;
+    private final int toEpochDay;
+    private final HolidayFilter filter;              // Without filter the size is exact
+    private final HolidayRuleSet rules;              // Entries per year
+    private final int firstYearCount;                // Entries of the (partial) first year, only known without filter
+    private final int lastYearCount;                 // Entries of the (partial) last year, only known without filter
+
+    private int year;                                // Next year to fetch
+    private final int fence;                         // First year after the range
+    private List<HolidayEntry> current;              // Year in progress, null if none
+    private int position;
+    private long size;
+
+    /**
+     * @param from First day, included
+     * @param to Last day, included
+     * @param filter Type and region filter
+     */
+    HolidayRangeSpliterator(LocalDate from, LocalDate to, HolidayFilter filter) {
+        this.from = from;
+        this.to = to;
+        this.fromEpochDay = (int) from.toEpochDay();
+        this.toEpochDay = (int) to.toEpochDay();
+        this.filter = filter;
+        this.year = from.getYear();
+        this.fence = to.isBefore(from) ? this.year : to.getYear() + 1;
+        this.rules = HolidayRuleSet.Active();
+        if (filter.IsEmpty() && this.fence > this.year) {
+            // The exact size needs the two boundary years. All years in between are counted, not calculated.
+            this.firstYearCount = CountWithin(HolidayCache.GetSnapshot(from.getYear()).GetEntries());
+            this.lastYearCount = CountWithin(HolidayCache.GetSnapshot(to.getYear()).GetEntries());
+        } else {
+            this.firstYearCount = rules.GetVisibleCount(from.getYear());
+            this.lastYearCount = rules.GetVisibleCount(to.getYear());
+        }
+        this.size = SizeOf(this.year, this.fence);
+    }
+
+    private HolidayRangeSpliterator(HolidayRangeSpliterator parent, int year, int fence) {
+        this.from = parent.from;
+        this.to = parent.to;
+        this.fromEpochDay = parent.fromEpochDay;
+        this.toEpochDay = parent.toEpochDay;
+        this.filter = parent.filter;
+        this.rules = parent.rules;
+        this.firstYearCount = parent.firstYearCount;
+        this.lastYearCount = parent.lastYearCount;
+        this.year = year;
+        this.fence = fence;
+        this.size = SizeOf(year, fence);
+    }
+
+    private int CountWithin(List<HolidayEntry> entries) {
+        int count = 0;
+        for (HolidayEntry entry : entries) {
+            if (IsWithin(entry)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean IsWithin(HolidayEntry entry) {
+        return entry.GetEpochDay() >= fromEpochDay && entry.GetEpochDay() <= toEpochDay;
+    }
+
+    private long SizeOf(int firstYear, int endYear) {
+        if (endYear <= firstYear) {
+            return 0;
+        }
+        if (from.getYear() == to.getYear()) {
+            return firstYearCount;
+        }
+        long result = 0;
+        for (int y = firstYear; y < endYear; y++) {
+            if (y == from.getYear()) {
+                result += firstYearCount;
+            } else if (y == to.getYear()) {
+                result += lastYearCount;
+            } else {
+                result += rules.GetVisibleCount(y);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super HolidayEntry> action) {
+        while (true) {
+            if (current == null) {
+                if (year >= fence) {
+                    return false;
+                }
+                current = HolidayCache.GetSnapshot(year++).GetEntries();
+                position = 0;
+            }
+            while (position < current.size()) {
+                HolidayEntry entry = current.get(position++);
+                if (!IsWithin(entry)) {
+                    if (entry.GetEpochDay() > toEpochDay) {
+                        position = current.size();
+                    }
+                    continue;
+                }
+                if (!filter.Matches(entry)) {
+                    continue;
+                }
+                if (size > 0) {
+                    size--;
+                }
+                action.accept(entry);
+                return true;
+            }
+            current = null;
+        }
+    }
+
+    @Override
+    public Spliterator<HolidayEntry> trySplit() {
+        if (current != null || fence - year < 2) {
+            return null;
+        }
+        int middle = (year + fence) >>> 1;
+        HolidayRangeSpliterator prefix = new HolidayRangeSpliterator(this, year, middle);
+        this.year = middle;
+        this.size = SizeOf(middle, fence);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = ORDERED | NONNULL | IMMUTABLE;
+        if (filter.IsEmpty()) {
+            characteristics |= SIZED | SUBSIZED;
+        }
+        return characteristics;
+    }
+}
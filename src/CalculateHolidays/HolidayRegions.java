@@ -0,0 +1,456 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayRegions
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Region tree below the federal states (government district,
+| district, municipality) keyed by Amtlicher Gemeindeschlüssel, and
+| holiday queries for a single place. A place inherits the holidays
+| of its state; the rule file adds local holidays (AGS code in the
+| regions column) and removes state holidays for single places
+| (!AGS code). The more specific code wins.
+|
+| The changes of all regions are resolved once per rule set into a
+| hash index, a query costs one lookup in addition to the state
+| query, also with the full directory of about 11,000 places loaded.
+| Places not listed take the resolved changes of their longest code
+| prefix named in the rules: at most three binary searches over a
+| sorted array of numeric keys, nothing is allocated.
+| The built-in directory (regions-de.txt) holds the places used by
+| the built-in rules; more can be loaded from a file in the same
+| format, in code or with -DCalculateHolidays.regions=<path>.
+|
+|   HolidayRegions.Default().GetHolidaysOn(LocalDate.of(2025, 8, 8), "09761000")  // Augsburg
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class HolidayRegions {
+
+    public static final String REGIONS_PROPERTY = "CalculateHolidays.regions";
+    private static final String DEFAULT_RESOURCE = "regions-de.txt";
+    private static final int[] PREFIX_LENGTHS = {3, 5, 8};
+    private static final int LEGAL_HOLIDAYS = HolidayType.NATIONAL_HOLIDAY.GetMask() | HolidayType.REGIONAL_HOLIDAY.GetMask();
+
+    private static final HolidayRegions DEFAULT = LoadDefault();
+
+    private final Map<String, Region> regionsByCode;
+    private volatile LocalIndex index;
+
+    private HolidayRegions(Map<String, Region> regionsByCode) {
+        this.regionsByCode = regionsByCode;
+    }
+
+    /**
+     * Reads a region file: "ags | name" per line. Empty lines and lines starting with # are ignored.
+     * The federal states are always included.
+     *
+     * @param reader
+     * @return The region tree
+     * @throws IOException
+     * @throws IllegalArgumentException if a line is malformed, with its line number
+     */
+    public static HolidayRegions Load(Reader reader) throws IOException {
+        Map<String, String> names = new HashMap<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] columns = trimmed.split("\\|", -1);
+            if (columns.length != 2 || columns[1].isBlank()) {
+                throw new IllegalArgumentException("Line " + number + ": Expected 'ags | name': " + trimmed);
+            }
+            String code = columns[0].trim();
+            if (RegionLevel.Of(code) == null) {
+                throw new IllegalArgumentException("Line " + number + ": Invalid AGS '" + code + "': " + trimmed);
+            }
+            names.put(code, columns[1].trim());
+        }
+        return Of(names);
+    }
+
+    public static HolidayRegions Load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return Load(reader);
+        }
+    }
+
+    private static HolidayRegions Of(Map<String, String> names) {
+        for (int i = 0; i < FederalState.Count(); i++) {
+            FederalState state = FederalState.FromOrdinal(i);
+            names.putIfAbsent(state.GetAgsCode(), state.GetName());
+        }
+        // Parents first: a shorter code is never the child of a longer one
+        List<String> codes = new ArrayList<>(names.keySet());
+        codes.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        Map<String, Region> regionsByCode = new HashMap<>(codes.size() * 2);
+        for (String code : codes) {
+            Region parent = null;
+            for (int length = code.length() - 1; length >= 2 && parent == null; length--) {
+                parent = regionsByCode.get(code.substring(0, length));
+            }
+            regionsByCode.put(code, new Region(code, names.get(code), parent));
+        }
+        return new HolidayRegions(regionsByCode);
+    }
+
+    private static HolidayRegions LoadDefault() {
+        try (InputStream stream = HolidayRegions.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing resource " + DEFAULT_RESOURCE);
+            }
+            HolidayRegions regions = Load(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String path = System.getProperty(REGIONS_PROPERTY);
+            return path == null || path.isBlank() ? regions : regions.With(Load(Paths.get(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The built-in directory, extended by -DCalculateHolidays.regions if set.
+     */
+    public static HolidayRegions Default() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param other
+     * @return New region tree: regions of other replace regions with the same code, the rest is added.
+     */
+    public HolidayRegions With(HolidayRegions other) {
+        Map<String, String> names = new HashMap<>();
+        for (Region region : regionsByCode.values()) {
+            names.put(region.GetCode(), region.GetName());
+        }
+        for (Region region : other.regionsByCode.values()) {
+            names.put(region.GetCode(), region.GetName());
+        }
+        return Of(names);
+    }
+
+    /**
+     * @param ags
+     * @return The listed region or null.
+     */
+    public Region Get(String ags) {
+        return regionsByCode.get(ags);
+    }
+
+    public int GetSize() {
+        return regionsByCode.size();
+    }
+
+    /**
+     * @param date
+     * @param ags AGS code of any level. Places not listed inherit from their listed parents.
+     * @return True if a national, regional or local holiday falls on the date at the place.
+     */
+    public boolean IsHoliday(LocalDate date, String ags) {
+        return IsHoliday(date, ags, LEGAL_HOLIDAYS);
+    }
+
+    /**
+     * @param date
+     * @param ags
+     * @param filter Only the type mask is used, no types means all types.
+     */
+    public boolean IsHoliday(LocalDate date, String ags, HolidayFilter filter) {
+        int typeMask = filter.GetTypeMask();
+        return IsHoliday(date, ags, typeMask == 0 ? -1 : typeMask);
+    }
+
+    private boolean IsHoliday(LocalDate date, String ags, int typeMask) {
+        FederalState state = StateOf(ags);
+        Changes changes = Resolve(ags);
+        boolean holiday = HolidayCalculator.Create().IsHoliday(date, state, typeMask);
+        if (changes == Changes.NONE || (!holiday && changes.added.length == 0)) {
+            return holiday;
+        }
+        for (HolidayEntry entry : GetHolidaysOn(date, ags)) {
+            if ((entry.GetType().GetMask() & typeMask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param date
+     * @param ags
+     * @return All entries of the date at the place: the ones of its state without the excluded ones, then the local ones.
+     */
+    public List<HolidayEntry> GetHolidaysOn(LocalDate date, String ags) {
+        FederalState state = StateOf(ags);
+        List<HolidayEntry> entries = HolidayCalculator.Create().GetHolidaysOn(date, state);
+        Changes changes = Resolve(ags);
+        if (changes == Changes.NONE || date.getYear() < CalculateHolidays.MIN_YEAR) {
+            return entries;
+        }
+        int epochDay = (int) date.toEpochDay();
+        List<HolidayEntry> holidayList = new ArrayList<>(entries.size() + 1);
+        for (HolidayEntry entry : entries) {
+            if (!changes.Removes(entry, date.getYear())) {
+                holidayList.add(entry);
+            }
+        }
+        for (int rule : changes.added) {
+            HolidayEntry entry = changes.Adds(rule, date.getYear()) ? changes.rules.Evaluate(rule, date.getYear()) : null;
+            if (entry != null && entry.GetEpochDay() == epochDay) {
+                holidayList.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(holidayList);
+    }
+
+    /**
+     * @param year
+     * @param ags
+     * @param filter Only the type mask is used, the state follows from the code.
+     * @return Holidays of the year at the place, sorted by date. Read-only.
+     */
+    public List<HolidayEntry> GetHolidays(int year, String ags, HolidayFilter filter) {
+        FederalState state = StateOf(ags);
+        List<HolidayEntry> entries = HolidayCalculator.Create().GetHolidays(year, filter.WithoutStates().WithStates(state));
+        Changes changes = Resolve(ags);
+        if (changes == Changes.NONE) {
+            return entries;
+        }
+        List<HolidayEntry> holidayList = new ArrayList<>(entries.size() + changes.added.length);
+        for (HolidayEntry entry : entries) {
+            if (!changes.Removes(entry, year)) {
+                holidayList.add(entry);
+            }
+        }
+        int typeMask = filter.GetTypeMask();
+        for (int rule : changes.added) {
+            HolidayEntry entry = changes.Adds(rule, year) ? changes.rules.Evaluate(rule, year) : null;
+            if (entry == null || (typeMask != 0 && (typeMask & entry.GetType().GetMask()) == 0)) {
+                continue;
+            }
+            // Behind the entries of the same day
+            int position = holidayList.size();
+            while (position > 0 && holidayList.get(position - 1).GetEpochDay() > entry.GetEpochDay()) {
+                position--;
+            }
+            holidayList.add(position, entry);
+        }
+        return Collections.unmodifiableList(holidayList);
+    }
+
+    private static FederalState StateOf(String ags) {
+        if (RegionLevel.Of(ags) == null) {
+            throw new IllegalArgumentException("Invalid AGS: " + ags);
+        }
+        return FederalState.FromAgs(ags);
+    }
+
+    // Changes of the place, from the index or, for places not listed, from the codes of the rules
+    private Changes Resolve(String ags) {
+        HolidayRuleSet rules = HolidayRuleSet.Active();
+        LocalIndex current = index;
+        if (current == null || current.rules != rules) {
+            current = new LocalIndex(rules, regionsByCode.keySet());
+            index = current;
+        }
+        Changes changes = current.changesByRegion.get(ags);
+        if (changes != null) {
+            return changes;
+        }
+        return regionsByCode.containsKey(ags) ? Changes.NONE : current.ResolvePrefix(ags);
+    }
+
+    /*---------------------------------------------------------------------
+    | Local changes of one rule set. changesByRegion holds the resolved
+    | changes of every listed place that has any; prefixKeys and
+    | prefixChanges hold them for every code of the rules, so a place
+    | that is not listed resolves through its longest such prefix.
+    +---------------------------------------------------------------------- */
+    private static final class LocalIndex {
+        final HolidayRuleSet rules;
+        final Map<String, List<int[]>> changesByCode = new HashMap<>();   // code -> {rule, 1 = add / 0 = remove}
+        final Map<String, Changes> changesByRegion = new HashMap<>();
+        long[] prefixKeys = new long[0];      // Sorted, see PrefixKey
+        Changes[] prefixChanges = new Changes[0];
+        final int[] eraYears;                 // One year of every era of the rules
+
+        LocalIndex(HolidayRuleSet rules, Iterable<String> regionCodes) {
+            this.rules = rules;
+            int[] changeYears = rules.GetChangeYears();
+            this.eraYears = new int[changeYears.length + 1];
+            eraYears[0] = changeYears.length == 0 ? CalculateHolidays.MIN_YEAR : changeYears[0] - 1;
+            System.arraycopy(changeYears, 0, eraYears, 1, changeYears.length);
+            List<HolidayRule> ruleList = rules.GetRules();
+            for (int i = 0; i < ruleList.size(); i++) {
+                for (String code : ruleList.get(i).GetLocalRegions()) {
+                    changesByCode.computeIfAbsent(code, key -> new ArrayList<>()).add(new int[] {i, 1});
+                }
+                for (String code : ruleList.get(i).GetExcludedRegions()) {
+                    changesByCode.computeIfAbsent(code, key -> new ArrayList<>()).add(new int[] {i, 0});
+                }
+            }
+            if (changesByCode.isEmpty()) {
+                return;
+            }
+            List<String> prefixes = new ArrayList<>(changesByCode.keySet());
+            prefixes.sort(Comparator.comparingLong(code -> PrefixKey(code, code.length())));
+            prefixKeys = new long[prefixes.size()];
+            prefixChanges = new Changes[prefixes.size()];
+            for (int i = 0; i < prefixes.size(); i++) {
+                prefixKeys[i] = PrefixKey(prefixes.get(i), prefixes.get(i).length());
+                prefixChanges[i] = Resolve(prefixes.get(i));
+            }
+            for (String code : regionCodes) {
+                Changes changes = Resolve(code);
+                if (changes != Changes.NONE) {
+                    changesByRegion.put(code, changes);
+                }
+            }
+        }
+
+        // A longer prefix of the same place includes the changes of the shorter ones, see Resolve
+        Changes ResolvePrefix(String ags) {
+            for (int i = PREFIX_LENGTHS.length - 1; i >= 0; i--) {
+                int length = PREFIX_LENGTHS[i];
+                if (length > ags.length()) {
+                    continue;
+                }
+                int found = Arrays.binarySearch(prefixKeys, PrefixKey(ags, length));
+                if (found >= 0) {
+                    return prefixChanges[found];
+                }
+            }
+            return Changes.NONE;
+        }
+
+        // Length as leading digit, so prefixes of different lengths never share a key. The code is digits only.
+        private static long PrefixKey(String ags, int length) {
+            long key = length;
+            for (int i = 0; i < length; i++) {
+                key = key * 10 + (ags.charAt(i) - '0');
+            }
+            return key;
+        }
+
+        Changes Resolve(String ags) {
+            Map<Integer, Boolean> added = new LinkedHashMap<>();
+            for (int length : PREFIX_LENGTHS) {
+                if (length > ags.length()) {
+                    break;
+                }
+                List<int[]> changes = changesByCode.get(ags.substring(0, length));
+                if (changes != null) {
+                    for (int[] change : changes) {
+                        added.put(change[0], change[1] == 1);
+                    }
+                }
+            }
+            // Regions can change with the years, so only changes that never have an effect are dropped here;
+            // the queries check the year, see Changes.Inherited
+            int stateMask = FederalState.FromAgs(ags).GetMask();
+            List<Integer> additions = new ArrayList<>();
+            List<Integer> removals = new ArrayList<>();
+            for (Map.Entry<Integer, Boolean> change : added.entrySet()) {
+                int rule = change.getKey();
+                boolean alwaysInherited = true;
+                boolean everInherited = false;
+                for (int year : eraYears) {
+                    boolean inherited = Changes.Inherited(rules.GetRules().get(rule), year, stateMask);
+                    alwaysInherited &= inherited;
+                    everInherited |= inherited;
+                }
+                if (change.getValue() && !alwaysInherited) {
+                    additions.add(rule);
+                } else if (!change.getValue() && everInherited) {
+                    removals.add(rule);
+                }
+            }
+            if (additions.isEmpty() && removals.isEmpty()) {
+                return Changes.NONE;
+            }
+            return new Changes(rules, stateMask, ToArray(additions), ToArray(removals));
+        }
+
+        private static int[] ToArray(List<Integer> values) {
+            int[] array = new int[values.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = values.get(i);
+            }
+            return array;
+        }
+    }
+
+    private static final class Changes {
+        static final Changes NONE = new Changes(null, 0, new int[0], new int[0]);
+
+        final HolidayRuleSet rules;
+        final int stateMask;
+        final int[] added;      // Rule indexes, not inherited in at least one year
+        final int[] removed;    // Inherited in at least one year
+
+        Changes(HolidayRuleSet rules, int stateMask, int[] added, int[] removed) {
+            this.rules = rules;
+            this.stateMask = stateMask;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        // True if the list of the state has the rule in the year already
+        static boolean Inherited(HolidayRule rule, int year, int stateMask) {
+            int mask = rule.GetRegionMask(year);
+            return !rule.IsHidden() && !rule.IsLocal() && mask != HolidayRule.NOT_IN_FORCE && (mask == 0 || (mask & stateMask) != 0);
+        }
+
+        boolean Adds(int rule, int year) {
+            return !Inherited(rules.GetRules().get(rule), year, stateMask);
+        }
+
+        boolean Removes(HolidayEntry entry, int year) {
+            for (int rule : removed) {
+                HolidayRule holidayRule = rules.GetRules().get(rule);
+                if (holidayRule.GetName().equals(entry.GetNameOfHoliday()) && Inherited(holidayRule, year, stateMask)) {
+                    HolidayEntry removedEntry = rules.Evaluate(rule, year);
+                    if (removedEntry != null && removedEntry.GetEpochDay() == entry.GetEpochDay()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayRule
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Declarative description of one holiday: name, type, regions and
+| the rule that places it in a year. Rules are parsed from lines
+| of a rule file and compiled by HolidayRuleSet.
+|
+| A region can be limited to years, e.g. BE[2019-]; * stands for
+| all states. GetRegionMask(year) gives the regions of one year.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.DayOfWeek;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class HolidayRule {
+
+    /**
+     * How the date of a rule is determined within a year.
+     */
+    public enum Kind {
+        FIXED,      // month, day
+        EASTER,     // offset in days from Easter Sunday
+        NTH,        // n-th weekday of month
+        LAST,       // last weekday of month
+        ADVENT,     // offset in days from the fourth Advent
+        BEFORE      // last weekday strictly before month-day
+    }
+
+    private final String id;
+    private final String name;
+    private final HolidayType type;
+    private final int regionMask;
+    private final Kind kind;
+    private final int month;
+    private final int day;
+    private final int offset;           // EASTER/ADVENT: days, NTH: n
+    private final DayOfWeek weekday;
+    private final boolean hidden;
+    private final boolean local;                    // Only in localRegions, not in the lists of whole states
+    private final List<String> localRegions;        // AGS codes with the holiday in addition to the states
+    private final List<String> excludedRegions;     // AGS codes without the holiday although their state has it
+    private final int alwaysMask;                   // Regions without years
+    private final boolean nationwide;               // Empty regions column: all states in every year
+    private final int[] limitedMasks;               // Regions limited to years, 0 = all states
+    private final int[] limitedFrom;
+    private final int[] limitedTo;
+
+    /**
+     * GetRegionMask(year) of a year in which the holiday does not exist.
+     */
+    public static final int NOT_IN_FORCE = -1;
+
+    /**
+     * Region mask of purely local holidays. The bit lies above all regions, so the entries match no state
+     * and do not count as nationwide; the places come from GetLocalRegions() and HolidayRegions.
+     */
+    public static final int LOCAL = 1 << 31;
+
+    HolidayRule(String id, String name, HolidayType type, int regionMask, Kind kind, int month, int day, int offset, DayOfWeek weekday, boolean hidden) {
+        this(id, name, type, regionMask, kind, month, day, offset, weekday, hidden, false, List.of(), List.of());
+    }
+
+    HolidayRule(String id, String name, HolidayType type, int regionMask, Kind kind, int month, int day, int offset, DayOfWeek weekday, boolean hidden,
+                boolean local, List<String> localRegions, List<String> excludedRegions) {
+        this(id, name, type, regionMask, kind, month, day, offset, weekday, hidden, local, localRegions, excludedRegions, new int[0], new int[0], new int[0]);
+    }
+
+    /**
+     * @param limitedMasks Regions limited to the years limitedFrom[i] - limitedTo[i] (included), 0 = all states
+     */
+    HolidayRule(String id, String name, HolidayType type, int regionMask, Kind kind, int month, int day, int offset, DayOfWeek weekday, boolean hidden,
+                boolean local, List<String> localRegions, List<String> excludedRegions, int[] limitedMasks, int[] limitedFrom, int[] limitedTo) {
+        int limitedStates = 0;
+        boolean allStatesInSomeYears = false;
+        for (int mask : limitedMasks) {
+            limitedStates |= mask;
+            allStatesInSomeYears |= mask == 0;
+        }
+        this.nationwide = regionMask == 0 && limitedMasks.length == 0;
+        this.alwaysMask = regionMask;
+        this.limitedMasks = limitedMasks.clone();
+        this.limitedFrom = limitedFrom.clone();
+        this.limitedTo = limitedTo.clone();
+        // *[years] stands for all states, so the union over all years is all states as well
+        regionMask = allStatesInSomeYears ? 0 : regionMask | limitedStates;
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.regionMask = regionMask;
+        this.kind = kind;
+        this.month = month;
+        this.day = day;
+        this.offset = offset;
+        this.weekday = weekday;
+        this.hidden = hidden;
+        this.local = local;
+        this.localRegions = List.copyOf(localRegions);
+        this.excludedRegions = List.copyOf(excludedRegions);
+    }
+
+    /**
+     * Parses one line of a rule file:
+     * <p> id | name | type | regions | rule [| hidden]
+     * <p> regions: two-letter state codes, AGS codes of districts or municipalities (local holiday)
+     * and AGS codes prefixed with ! (excluded from the holiday of their state). A state code or *
+     * (all states) followed by [yyyy], [yyyy-], [-yyyy] or [yyyy-yyyy] applies in these years only.
+     * 
+     * @param line
+     * @return The rule
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static HolidayRule Parse(String line) {
+        return Parse(line, null);
+    }
+
+    /**
+     * Parses one line of the rule file of a HolidayProvider. Region i of the list is bit i of the region mask.
+     * AGS codes are German only and not accepted with a region list.
+     * 
+     * @param line
+     * @param regionCodes Region codes of the country, null for the German states
+     * @return The rule
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static HolidayRule Parse(String line, List<String> regionCodes) {
+        String[] columns = line.split("\\|", -1);
+        if (columns.length < 5 || columns.length > 6) {
+            throw new IllegalArgumentException("Expected 'id | name | type | regions | rule [| hidden]': " + line);
+        }
+        String id = columns[0].trim();
+        String name = columns[1].trim();
+        if (id.isEmpty() || name.isEmpty()) {
+            throw new IllegalArgumentException("Id and name must not be empty: " + line);
+        }
+        HolidayType type = HolidayType.valueOf(columns[2].trim());
+        int regionMask = 0;
+        List<String> localRegions = new ArrayList<>();
+        List<String> excludedRegions = new ArrayList<>();
+        List<int[]> limited = new ArrayList<>();   // {mask, from, to}
+        for (String token : columns[3].split(",")) {
+            String code = token.trim();
+            if (code.isEmpty()) {
+                continue;
+            }
+            int bracket = code.indexOf('[');
+            if (bracket >= 0) {
+                int[] years = ParseYears(code.substring(bracket), line);
+                code = code.substring(0, bracket).trim();
+                int mask = code.equals("*") ? 0 : RegionMaskOf(code, regionCodes, line);
+                limited.add(new int[] {mask, years[0], years[1]});
+                continue;
+            }
+            if (regionCodes != null) {
+                regionMask |= RegionMaskOf(code, regionCodes, line);
+                continue;
+            }
+            if (code.startsWith("!") && IsSubStateAgs(code.substring(1))) {
+                excludedRegions.add(code.substring(1));
+                continue;
+            }
+            if (IsSubStateAgs(code)) {
+                if (FederalState.FromAgs(code) == null) {
+                    throw new IllegalArgumentException("Unknown state in AGS " + code + ": " + line);
+                }
+                localRegions.add(code);
+                continue;
+            }
+            regionMask |= RegionMaskOf(code, null, line);
+        }
+        int[] limitedMasks = new int[limited.size()];
+        int[] limitedFrom = new int[limited.size()];
+        int[] limitedTo = new int[limited.size()];
+        for (int i = 0; i < limited.size(); i++) {
+            limitedMasks[i] = limited.get(i)[0];
+            limitedFrom[i] = limited.get(i)[1];
+            limitedTo[i] = limited.get(i)[2];
+        }
+        // Purely local holidays belong to no state, only HolidayRegions knows their places
+        boolean local = regionMask == 0 && !localRegions.isEmpty();
+        if (local && !limited.isEmpty()) {
+            throw new IllegalArgumentException("Local holidays cannot have regions limited to years: " + line);
+        }
+        if (local) {
+            regionMask = LOCAL;
+        }
+        boolean hidden = false;
+        if (columns.length == 6) {
+            String option = columns[5].trim();
+            if (option.equals("hidden")) {
+                hidden = true;
+            } else if (!option.isEmpty()) {
+                throw new IllegalArgumentException("Unknown option '" + option + "': " + line);
+            }
+        }
+
+        String[] rule = columns[4].trim().split("\\s+");
+        Kind kind = Kind.valueOf(rule[0]);
+        switch (kind) {
+            case FIXED: {
+                MonthDay monthDay = ParseMonthDay(rule, 1, line);
+                return new HolidayRule(id, name, type, regionMask, kind, monthDay.getMonthValue(), monthDay.getDayOfMonth(), 0, null, hidden, local, localRegions, excludedRegions, limitedMasks, limitedFrom, limitedTo);
+            }
+            case EASTER:
+            case ADVENT:
+                Expect(rule, 2, line);
+                return new HolidayRule(id, name, type, regionMask, kind, 0, 0, Integer.parseInt(rule[1]), null, hidden, local, localRegions, excludedRegions, limitedMasks, limitedFrom, limitedTo);
+            case NTH: {
+                Expect(rule, 4, line);
+                int n = Integer.parseInt(rule[1]);
+                // A fifth weekday does not exist in every month and would move into the next one
+                if (n < 1 || n > 4) {
+                    throw new IllegalArgumentException("NTH needs 1 - 4, LAST for the last weekday: " + line);
+                }
+                return new HolidayRule(id, name, type, regionMask, kind, ParseMonth(rule[3], line), 0, n, DayOfWeek.valueOf(rule[2]), hidden, local, localRegions, excludedRegions, limitedMasks, limitedFrom, limitedTo);
+            }
+            case LAST:
+                Expect(rule, 3, line);
+                return new HolidayRule(id, name, type, regionMask, kind, ParseMonth(rule[2], line), 0, 0, DayOfWeek.valueOf(rule[1]), hidden, local, localRegions, excludedRegions, limitedMasks, limitedFrom, limitedTo);
+            case BEFORE: {
+                MonthDay monthDay = ParseMonthDay(rule, 2, line);
+                return new HolidayRule(id, name, type, regionMask, kind, monthDay.getMonthValue(), monthDay.getDayOfMonth(), 0, DayOfWeek.valueOf(rule[1]), hidden, local, localRegions, excludedRegions, limitedMasks, limitedFrom, limitedTo);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown rule: " + line);
+        }
+    }
+
+    private static int RegionMaskOf(String code, List<String> regionCodes, String line) {
+        if (regionCodes != null) {
+            int region = IndexOfRegion(regionCodes, code);
+            if (region < 0) {
+                throw new IllegalArgumentException("Unknown region '" + code + "': " + line);
+            }
+            return 1 << region;
+        }
+        FederalState state = RegionLevel.Of(code) == RegionLevel.STATE ? FederalState.FromAgs(code) : FederalState.Parse(code);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown region '" + code + "': " + line);
+        }
+        return state.GetMask();
+    }
+
+    // [yyyy], [yyyy-], [-yyyy] or [yyyy-yyyy], both years included
+    private static int[] ParseYears(String years, String line) {
+        if (!years.endsWith("]") || years.length() < 3) {
+            throw new IllegalArgumentException("Invalid years '" + years + "': " + line);
+        }
+        String range = years.substring(1, years.length() - 1).trim();
+        int dash = range.indexOf('-');
+        try {
+            int from = dash < 0 ? Integer.parseInt(range) : dash == 0 ? Integer.MIN_VALUE : Integer.parseInt(range.substring(0, dash).trim());
+            int to = dash < 0 ? from : dash == range.length() - 1 ? Integer.MAX_VALUE : Integer.parseInt(range.substring(dash + 1).trim());
+            if (from > to || (dash == 0 && to == Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("Invalid years '" + years + "': " + line);
+            }
+            return new int[] {from, to};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid years '" + years + "': " + line, e);
+        }
+    }
+
+    private static int IndexOfRegion(List<String> regionCodes, String code) {
+        for (int i = 0; i < regionCodes.size(); i++) {
+            if (regionCodes.get(i).equalsIgnoreCase(code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean IsSubStateAgs(String code) {
+        RegionLevel level = RegionLevel.Of(code);
+        return level != null && level != RegionLevel.STATE;
+    }
+
+    private static void Expect(String[] rule, int parts, String line) {
+        if (rule.length != parts) {
+            throw new IllegalArgumentException("Rule " + rule[0] + " needs " + (parts - 1) + " argument(s): " + line);
+        }
+    }
+
+    private static MonthDay ParseMonthDay(String[] rule, int position, String line) {
+        Expect(rule, position + 1, line);
+        try {
+            return MonthDay.parse("--" + rule[position]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be MM-DD: " + line, e);
+        }
+    }
+
+    private static int ParseMonth(String value, String line) {
+        int month = Integer.parseInt(value);
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be 1 - 12: " + line);
+        }
+        return month;
+    }
+
+    // Gettermethods
+    public String GetId() {
+        return id;
+    }
+
+    public String GetName() {
+        return name;
+    }
+
+    public HolidayType GetType() {
+        return type;
+    }
+
+    /**
+     * @return All states that have the holiday in any year, 0 = all states (in every year or, with *[years], in some),
+     *         LOCAL for local holidays. GetRegionMask(year) gives the states of one year.
+     */
+    public int GetRegionMask() {
+        return regionMask;
+    }
+
+    /**
+     * @param year
+     * @return The states that have the holiday in the year, 0 = all states, NOT_IN_FORCE if none.
+     */
+    public int GetRegionMask(int year) {
+        if (nationwide) {
+            return 0;
+        }
+        int mask = alwaysMask;
+        boolean inForce = alwaysMask != 0;
+        for (int i = 0; i < limitedMasks.length; i++) {
+            if (year >= limitedFrom[i] && year <= limitedTo[i]) {
+                if (limitedMasks[i] == 0) {
+                    return 0;
+                }
+                mask |= limitedMasks[i];
+                inForce = true;
+            }
+        }
+        return inForce ? mask : NOT_IN_FORCE;
+    }
+
+    public boolean IsInForce(int year) {
+        return GetRegionMask(year) != NOT_IN_FORCE;
+    }
+
+    /**
+     * @return The first years in which GetRegionMask(year) differs from the year before, unsorted.
+     */
+    int[] GetChangeYears() {
+        int[] years = new int[limitedMasks.length * 2];
+        int count = 0;
+        for (int i = 0; i < limitedMasks.length; i++) {
+            if (limitedFrom[i] != Integer.MIN_VALUE) {
+                years[count++] = limitedFrom[i];
+            }
+            if (limitedTo[i] != Integer.MAX_VALUE) {
+                years[count++] = limitedTo[i] + 1;
+            }
+        }
+        return Arrays.copyOf(years, count);
+    }
+
+    /**
+     * @return The regions limited to years as "mask[from-to]" entries, for the fingerprint of the rule set.
+     */
+    String GetLimitedRegions() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < limitedMasks.length; i++) {
+            text.append(limitedMasks[i]).append('[').append(limitedFrom[i]).append('-').append(limitedTo[i]).append(']');
+        }
+        return text.toString();
+    }
+
+    public Kind GetKind() {
+        return kind;
+    }
+
+    public int GetMonth() {
+        return month;
+    }
+
+    public int GetDay() {
+        return day;
+    }
+
+    public int GetOffset() {
+        return offset;
+    }
+
+    public DayOfWeek GetWeekday() {
+        return weekday;
+    }
+
+    public boolean IsHidden() {
+        return hidden;
+    }
+
+    /**
+     * @return AGS codes (district or municipality) where the holiday applies in addition to GetRegionMask().
+     */
+    public List<String> GetLocalRegions() {
+        return localRegions;
+    }
+
+    /**
+     * @return AGS codes where the holiday does not apply although their state has it.
+     */
+    public List<String> GetExcludedRegions() {
+        return excludedRegions;
+    }
+
+    /**
+     * @return True if the holiday applies to the local regions only. GetRegionMask() is then LOCAL,
+     *         the rule is not part of the lists of whole states.
+     */
+    public boolean IsLocal() {
+        return local;
+    }
+}
@@ -0,0 +1,502 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayRuleSet
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Compiled set of HolidayRules. The rules are flattened into int
+| arrays once, a whole year is then evaluated in a single pass
+| with plain epoch-day arithmetic: Easter comes from the EasterTable,
+| the fourth Advent is calculated once per year, no LocalDate is
+| created per rule.
+|
+| Regions limited to years split the calendar into eras in which
+| every rule has the same regions. The region masks and visible
+| rules of each era are precomputed; a year finds its era with a
+| binary search over the few change years, so old years cost the
+| same as the current one.
+|
+| The built-in German rules are read from holidays-de.rules. More
+| rules can be loaded from a file, either in code or at startup
+| with -DCalculateHolidays.rules=<path>.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+public final class HolidayRuleSet {
+
+    public static final String RULES_PROPERTY = "CalculateHolidays.rules";
+    private static final String DEFAULT_RESOURCE = "holidays-de.rules";
+
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+    private static final int SUNDAY = 6;    // 0 = Monday
+
+    private static final HolidayRuleSet DEFAULT = LoadDefault();
+    private static volatile HolidayRuleSet active = LoadActive();
+
+    private final List<HolidayRule> rules;
+    private final Map<String, Integer> indexById;
+    // Compiled form, one slot per rule
+    private final int[] kinds;
+    private final int[] months;
+    private final int[] days;
+    private final int[] offsets;
+    private final int[] weekdays;
+    private final HolidayType[] types;
+    private final int[] changeYears;        // Sorted, era i + 1 starts with changeYears[i]
+    private final Era[] eras;
+    private final long fingerprint;
+    private final HolidayCountry country;   // Decodes the region masks of the entries, null for the German states
+
+    private HolidayRuleSet(List<HolidayRule> rules) {
+        this(rules, null);
+    }
+
+    private HolidayRuleSet(List<HolidayRule> rules, HolidayCountry country) {
+        int count = rules.size();
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.indexById = new HashMap<>();
+        this.kinds = new int[count];
+        this.months = new int[count];
+        this.days = new int[count];
+        this.offsets = new int[count];
+        this.weekdays = new int[count];
+        this.types = new HolidayType[count];
+        for (int i = 0; i < count; i++) {
+            HolidayRule rule = rules.get(i);
+            if (indexById.put(rule.GetId(), i) != null) {
+                throw new IllegalArgumentException("Duplicate rule id: " + rule.GetId());
+            }
+            kinds[i] = rule.GetKind().ordinal();
+            months[i] = rule.GetMonth();
+            days[i] = rule.GetDay();
+            offsets[i] = rule.GetOffset();
+            weekdays[i] = rule.GetWeekday() == null ? 0 : rule.GetWeekday().getValue() - 1;
+            types[i] = rule.GetType();
+        }
+        this.changeYears = ChangeYears(rules);
+        this.eras = new Era[changeYears.length + 1];
+        for (int era = 0; era < eras.length; era++) {
+            // Any year of the era gives its regions
+            int year = era == 0 ? (changeYears.length == 0 ? 0 : changeYears[0] - 1) : changeYears[era - 1];
+            eras[era] = new Era(rules, year);
+        }
+        this.fingerprint = Fingerprint(rules);
+        this.country = country;
+    }
+
+    /**
+     * @param country The country whose regions the masks of the rules refer to
+     * @return The same rules, the entries resolve their regions through the country
+     */
+    HolidayRuleSet ForCountry(HolidayCountry country) {
+        return new HolidayRuleSet(rules, country);
+    }
+
+    private static int[] ChangeYears(List<HolidayRule> rules) {
+        TreeSet<Integer> years = new TreeSet<>();
+        for (HolidayRule rule : rules) {
+            for (int year : rule.GetChangeYears()) {
+                years.add(year);
+            }
+        }
+        int[] sorted = new int[years.size()];
+        int i = 0;
+        for (int year : years) {
+            sorted[i++] = year;
+        }
+        return sorted;
+    }
+
+    private Era EraOf(int year) {
+        return eras[EraIndex(year)];
+    }
+
+    private int EraIndex(int year) {
+        int low = 0;
+        int high = changeYears.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (changeYears[middle] <= year) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /*---------------------------------------------------------------------
+    | Region masks of all rules and the rules of the full list for the
+    | years between two change years.
+    +---------------------------------------------------------------------- */
+    private static final class Era {
+        final int[] regionMasks;    // NOT_IN_FORCE for rules that do not exist in the era
+        final int[] visible;        // Rules of the full list, in file order
+
+        Era(List<HolidayRule> rules, int year) {
+            int count = rules.size();
+            this.regionMasks = new int[count];
+            int visibleCount = 0;
+            int[] visibleRules = new int[count];
+            for (int i = 0; i < count; i++) {
+                HolidayRule rule = rules.get(i);
+                regionMasks[i] = rule.GetRegionMask(year);
+                if (!rule.IsHidden() && !rule.IsLocal() && regionMasks[i] != HolidayRule.NOT_IN_FORCE) {
+                    visibleRules[visibleCount++] = i;
+                }
+            }
+            this.visible = Arrays.copyOf(visibleRules, visibleCount);
+        }
+    }
+
+    // CRC-32 over all fields of all rules, in order
+    private static long Fingerprint(List<HolidayRule> rules) {
+        StringBuilder text = new StringBuilder();
+        for (HolidayRule rule : rules) {
+            text.append(rule.GetId()).append('|').append(rule.GetName()).append('|').append(rule.GetType().name())
+                .append('|').append(rule.GetRegionMask()).append('|').append(rule.GetKind().name())
+                .append('|').append(rule.GetMonth()).append('|').append(rule.GetDay()).append('|').append(rule.GetOffset())
+                .append('|').append(rule.GetWeekday()).append('|').append(rule.IsHidden())
+                .append('|').append(rule.GetLocalRegions()).append('|').append(rule.GetExcludedRegions())
+                .append('|').append(rule.GetLimitedRegions()).append('\n');
+        }
+        CRC32 crc = new CRC32();
+        crc.update(text.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    public static HolidayRuleSet Of(List<HolidayRule> rules) {
+        return new HolidayRuleSet(rules);
+    }
+
+    /**
+     * Reads a rule file. Empty lines and lines starting with # are ignored.
+     * 
+     * @param reader
+     * @return The compiled rule set
+     * @throws IOException
+     * @throws IllegalArgumentException if a line is malformed, with its line number
+     */
+    public static HolidayRuleSet Load(Reader reader) throws IOException {
+        return Load(reader, null);
+    }
+
+    /**
+     * Reads the rule file of a HolidayProvider, see HolidayRule.Parse(String, List).
+     * 
+     * @param reader
+     * @param regionCodes Region codes of the country, null for the German states
+     * @return The compiled rule set
+     * @throws IOException
+     * @throws IllegalArgumentException if a line is malformed, with its line number
+     */
+    public static HolidayRuleSet Load(Reader reader, List<String> regionCodes) throws IOException {
+        List<HolidayRule> rules = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(HolidayRule.Parse(trimmed, regionCodes));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return new HolidayRuleSet(rules);
+    }
+
+    public static HolidayRuleSet Load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return Load(reader);
+        }
+    }
+
+    private static HolidayRuleSet LoadDefault() {
+        return LoadResource(DEFAULT_RESOURCE, null);
+    }
+
+    /**
+     * @param resource Rule file next to this class
+     * @param regionCodes Region codes of the country, null for the German states
+     * @return The compiled rule set
+     */
+    static HolidayRuleSet LoadResource(String resource, List<String> regionCodes) {
+        try (InputStream stream = HolidayRuleSet.class.getResourceAsStream(resource)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing resource " + resource);
+            }
+            return Load(new InputStreamReader(stream, StandardCharsets.UTF_8), regionCodes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HolidayRuleSet LoadActive() {
+        String path = System.getProperty(RULES_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return DEFAULT;
+        }
+        try {
+            return DEFAULT.With(Load(Paths.get(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + RULES_PROPERTY + "=" + path, e);
+        }
+    }
+
+    /**
+     * @return The built-in German rules.
+     */
+    public static HolidayRuleSet Default() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return The rules used by CalculateHolidays, HolidayCalculator and the HolidayCache.
+     */
+    public static HolidayRuleSet Active() {
+        return active;
+    }
+
+    /**
+     * Replaces the rules used by all calculations and drops every cached year.
+     * Meant to be called once at startup. Queries running at the same time may still answer from the old rules,
+     * but a year they calculate is not cached under the new ones, see HolidayCache.GetSnapshot.
+     * 
+     * @param rules
+     */
+    public static void SetActive(HolidayRuleSet rules) {
+        active = rules;
+        HolidayCache.Clear();
+        WorkingDayCalculator.ClearYearTotals();
+    }
+
+    /**
+     * @param other
+     * @return New rule set: rules of other replace rules with the same id, the rest is appended.
+     */
+    public HolidayRuleSet With(HolidayRuleSet other) {
+        List<HolidayRule> merged = new ArrayList<>(rules);
+        for (HolidayRule rule : other.rules) {
+            Integer index = indexById.get(rule.GetId());
+            if (index != null) {
+                merged.set(index, rule);
+            } else {
+                merged.add(rule);
+            }
+        }
+        return new HolidayRuleSet(merged);
+    }
+
+    // Gettermethods
+    public List<HolidayRule> GetRules() {
+        return rules;
+    }
+
+    /**
+     * @param id
+     * @return Position of the rule or -1 if the id is unknown.
+     */
+    public int IndexOf(String id) {
+        Integer index = indexById.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return Checksum of all rules. Equal rule sets have the same fingerprint, used to detect stale calendar files.
+     */
+    public long GetFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @param year
+     * @return Number of holidays of a full list of the year (hidden and local rules and rules not in force excluded).
+     */
+    public int GetVisibleCount(int year) {
+        return EraOf(year).visible.length;
+    }
+
+    /**
+     * @param filter
+     * @param fromYear
+     * @return False if no visible rule passing the filter is in force in the year or any later one,
+     *         i.e. a list or cursor with this filter stays empty from that year on.
+     */
+    boolean CanMatch(HolidayFilter filter, int fromYear) {
+        for (int era = EraIndex(fromYear); era < eras.length; era++) {
+            for (int rule : eras[era].visible) {
+                if (filter.Matches(types[rule], eras[era].regionMasks[rule])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Years in which the regions of at least one rule change, sorted.
+     */
+    public int[] GetChangeYears() {
+        return changeYears.clone();
+    }
+
+    /**
+     * Evaluates all visible rules that pass the filter in one pass.
+     * 
+     * @param year
+     * @param filter Evaluated before a date is calculated
+     * @return Entries sorted by date, rules on the same day in file order
+     */
+    ArrayList<HolidayEntry> Evaluate(int year, HolidayFilter filter) {
+        YearContext context = new YearContext(year);
+        Era era = EraOf(year);
+        int[] order = new int[era.visible.length];
+        int[] dates = new int[era.visible.length];
+        int count = 0;
+        for (int rule : era.visible) {
+            if (!filter.Matches(types[rule], era.regionMasks[rule])) {
+                continue;
+            }
+            int date = EpochDay(rule, context);
+            // Insertion sort, stable. The list is short and almost sorted already.
+            int position = count;
+            while (position > 0 && dates[position - 1] > date) {
+                dates[position] = dates[position - 1];
+                order[position] = order[position - 1];
+                position--;
+            }
+            dates[position] = date;
+            order[position] = rule;
+            count++;
+        }
+        ArrayList<HolidayEntry> holidayList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            holidayList.add(CreateEntry(order[i], dates[i], era.regionMasks[order[i]]));
+        }
+        return holidayList;
+    }
+
+    /**
+     * @param index Position of the rule, see IndexOf
+     * @param year
+     * @return The entry of a single rule with the regions of the year, hidden rules included.
+     *         Null if the rule is not in force in the year.
+     */
+    HolidayEntry Evaluate(int index, int year) {
+        int regionMask = EraOf(year).regionMasks[index];
+        if (regionMask == HolidayRule.NOT_IN_FORCE) {
+            return null;
+        }
+        return CreateEntry(index, EpochDay(index, new YearContext(year)), regionMask);
+    }
+
+    private HolidayEntry CreateEntry(int rule, int epochDay, int regionMask) {
+        return new HolidayEntry(epochDay, rules.get(rule).GetName(), types[rule], regionMask, country);
+    }
+
+    /*---------------------------------------------------------------------
+    | Values that several rules of a year share. Easter and the fourth
+    | Advent are calculated on first use only.
+    +---------------------------------------------------------------------- */
+    private static final class YearContext {
+        final int year;
+        final int januaryFirst;
+        final boolean leap;
+        int easter = Integer.MIN_VALUE;
+        int fourthAdvent = Integer.MIN_VALUE;
+
+        YearContext(int year) {
+            this.year = year;
+            this.januaryFirst = EasterTable.EpochDay(year, 1, 1);
+            this.leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        }
+
+        int Date(int month, int day) {
+            return januaryFirst + DAYS_BEFORE_MONTH[month - 1] + (leap && month > 2 ? 1 : 0) + day - 1;
+        }
+
+        int LengthOfMonth(int month) {
+            return month == 12 ? 31 : Date(month + 1, 1) - Date(month, 1);
+        }
+
+        int Easter() {
+            if (easter == Integer.MIN_VALUE) {
+                easter = EasterTable.Default().GetEasterEpochDay(year);
+            }
+            return easter;
+        }
+
+        int FourthAdvent() {
+            if (fourthAdvent == Integer.MIN_VALUE) {
+                int christmasEve = Date(12, 24);
+                fourthAdvent = christmasEve - Math.floorMod(DayOfWeek(christmasEve) - SUNDAY, 7);
+            }
+            return fourthAdvent;
+        }
+    }
+
+    // 0 = Monday, like LocalDate.getDayOfWeek().getValue() - 1
+    private static int DayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7);
+    }
+
+    private int EpochDay(int rule, YearContext context) {
+        switch (kinds[rule]) {
+            case 0: // FIXED
+                return context.Date(months[rule], days[rule]);
+            case 1: // EASTER
+                return context.Easter() + offsets[rule];
+            case 2: { // NTH
+                int first = context.Date(months[rule], 1);
+                return first + Math.floorMod(weekdays[rule] - DayOfWeek(first), 7) + 7 * (offsets[rule] - 1);
+            }
+            case 3: { // LAST
+                int last = context.Date(months[rule], context.LengthOfMonth(months[rule]));
+                return last - Math.floorMod(DayOfWeek(last) - weekdays[rule], 7);
+            }
+            case 4: // ADVENT
+                return context.FourthAdvent() + offsets[rule];
+            case 5: { // BEFORE
+                int before = context.Date(months[rule], days[rule]) - 1;
+                return before - Math.floorMod(DayOfWeek(before) - weekdays[rule], 7);
+            }
+            default:
+                throw new IllegalStateException("Unknown rule kind " + kinds[rule]);
+        }
+    }
+}
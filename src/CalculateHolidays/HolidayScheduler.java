@@ -0,0 +1,296 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayScheduler
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Runs jobs at the times of their JobSchedule. All jobs share one
+| hashed timer wheel: a ring of buckets, one per tick, a job sits
+| in the bucket of its fire tick modulo the ring size. Each tick
+| looks at one bucket only, however many jobs are registered.
+| Jobs due more than one revolution ahead wait in a heap ordered
+| by fire tick and move onto the wheel when their revolution
+| starts, so a bucket only holds jobs that are due when it is
+| reached and idle ticks cost nothing.
+| There is no thread or ScheduledFuture per job; the tasks run on
+| the given executor.
+|
+| The time comes from the Clock, so a test can drive the scheduler
+| with its own clock and RunPending() instead of Start(). Fire
+| times that were missed, e.g. after the clock jumped, are
+| coalesced: the job runs once and continues with its next fire
+| time after now.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class HolidayScheduler implements AutoCloseable {
+
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Clock clock;
+    private final ZoneId zone;
+    private final Executor executor;
+    private final long tickMillis;
+    private final int mask;
+    private final ScheduledJob[] buckets;
+    private final PriorityQueue<ScheduledJob> overflow = new PriorityQueue<>(Comparator.comparingLong(job -> job.dueTick));
+    private final ConcurrentLinkedQueue<ScheduledJob> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger jobCount = new AtomicInteger();
+    private final List<ScheduledJob> due = new ArrayList<>();
+    private long currentTick;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Ticks every second, the tasks run on the scheduler thread.
+     *
+     * @param clock Time and time zone of the schedules
+     */
+    public HolidayScheduler(Clock clock) {
+        this(clock, Runnable::run, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param clock Time and time zone of the schedules
+     * @param executor Runs the tasks
+     * @param tickMillis Resolution of the wheel
+     * @param wheelSize Number of buckets, a power of two
+     */
+    public HolidayScheduler(Clock clock, Executor executor, long tickMillis, int wheelSize) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms: " + tickMillis);
+        }
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.executor = executor;
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ScheduledJob[wheelSize];
+        this.currentTick = Math.floorDiv(clock.millis(), tickMillis);
+    }
+
+    /**
+     * Registers a job. It is put on the wheel by the next RunPending(); the first fire time is after that.
+     *
+     * @param name
+     * @param schedule
+     * @param task
+     * @return The job, e.g. to cancel it
+     */
+    public ScheduledJob Schedule(String name, JobSchedule schedule, Runnable task) {
+        ScheduledJob job = new ScheduledJob(name, schedule, task);
+        pending.add(job);
+        jobCount.incrementAndGet();
+        return job;
+    }
+
+    /**
+     * Advances the wheel to the time of the clock and runs all jobs that are due.
+     * Start() calls this once per tick; with a virtual clock the test calls it itself.
+     */
+    public synchronized void RunPending() {
+        long nowTick = Math.floorDiv(clock.millis(), tickMillis);
+        if (nowTick - currentTick >= buckets.length) {
+            // The whole ring is due, one pass over every bucket is enough
+            currentTick = nowTick;
+            TakeOverflow();
+            for (int i = 0; i < buckets.length; i++) {
+                CollectDue(i, nowTick);
+            }
+        } else {
+            while (currentTick < nowTick) {
+                currentTick++;
+                TakeOverflow();
+                CollectDue((int) (currentTick & mask), currentTick);
+            }
+        }
+        Instant now = clock.instant();
+        try {
+            for (ScheduledJob job : due) {
+                job.Fired();
+                Execute(job);
+                Instant deadline = job.GetNextFire();
+                SafeReschedule(job, deadline.isAfter(now) ? deadline : now);
+            }
+        } finally {
+            // The due jobs are on the wheel again or ended, none may be collected twice
+            due.clear();
+        }
+        for (ScheduledJob job = pending.poll(); job != null; job = pending.poll()) {
+            SafeReschedule(job, now);
+        }
+    }
+
+    private void SafeReschedule(ScheduledJob job, Instant after) {
+        try {
+            Reschedule(job, after);
+        } catch (RuntimeException e) {
+            // The schedule has no next fire time, e.g. beyond the supported years; the job ends like after its last one
+            job.Failed(e);
+            job.SetNextFire(null);
+            Remove(job);
+        }
+    }
+
+    // A failing task or a rejecting executor must not stop the other due jobs
+    private void Execute(ScheduledJob job) {
+        try {
+            executor.execute(job.GetRun());
+        } catch (RuntimeException e) {
+            job.Failed(e);
+        }
+    }
+
+    // Moves the jobs of the bucket that are due by the tick to the due list
+    private void CollectDue(int bucket, long tick) {
+        ScheduledJob previous = null;
+        ScheduledJob job = buckets[bucket];
+        while (job != null) {
+            ScheduledJob next = job.next;
+            if (job.dueTick <= tick || job.IsCancelled()) {
+                if (previous == null) {
+                    buckets[bucket] = next;
+                } else {
+                    previous.next = next;
+                }
+                job.next = null;
+                if (job.IsCancelled()) {
+                    Remove(job);
+                } else {
+                    due.add(job);
+                }
+            } else {
+                previous = job;
+            }
+            job = next;
+        }
+    }
+
+    // Moves the jobs that are due within one revolution from the heap onto the wheel
+    private void TakeOverflow() {
+        for (ScheduledJob job = overflow.peek(); job != null && job.dueTick - currentTick < buckets.length; job = overflow.peek()) {
+            overflow.poll();
+            if (job.IsCancelled()) {
+                Remove(job);
+            } else {
+                Insert(job);
+            }
+        }
+    }
+
+    private void Insert(ScheduledJob job) {
+        int bucket = (int) (job.dueTick & mask);
+        job.next = buckets[bucket];
+        buckets[bucket] = job;
+    }
+
+    private void Reschedule(ScheduledJob job, Instant after) {
+        Instant fire = job.IsCancelled() ? null : job.GetSchedule().GetNextFire(after, zone);
+        job.SetNextFire(fire);
+        if (fire == null) {
+            Remove(job);
+            return;
+        }
+        // First tick at or after the fire time; the fire time is after now, so this is a future tick
+        job.dueTick = Math.max(currentTick + 1, Math.floorDiv(fire.toEpochMilli() + tickMillis - 1, tickMillis));
+        if (job.dueTick - currentTick < buckets.length) {
+            Insert(job);
+        } else {
+            overflow.add(job);
+        }
+    }
+
+    private void Remove(ScheduledJob job) {
+        jobCount.decrementAndGet();
+    }
+
+    /**
+     * Starts a daemon thread that calls RunPending() at every tick of the clock.
+     */
+    public synchronized void Start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::Loop, "HolidayScheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void Loop() {
+        while (running) {
+            try {
+                RunPending();
+            } catch (RuntimeException e) {
+                // Reported like an uncaught exception, but the thread keeps serving the other jobs
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+            long millis = clock.millis();
+            long sleep = (Math.floorDiv(millis, tickMillis) + 1) * tickMillis - millis;
+            try {
+                Thread.sleep(Math.max(1, sleep));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the thread of Start(). Running tasks are not interrupted, the jobs stay registered.
+     */
+    @Override
+    public void close() {
+        Thread stopped;
+        synchronized (this) {
+            running = false;
+            stopped = thread;
+            thread = null;
+        }
+        if (stopped != null) {
+            stopped.interrupt();
+        }
+    }
+
+    // Gettermethods
+    public Clock GetClock() {
+        return clock;
+    }
+
+    public long GetTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * @return Jobs on the wheel. Cancelled jobs leave it at their next due tick, jobs without further fire times at once.
+     */
+    public int GetJobCount() {
+        return jobCount.get();
+    }
+}
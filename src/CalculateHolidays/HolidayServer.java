@@ -0,0 +1,508 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayServer
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Small HTTP service on the JDK's built-in HttpServer. Every
+| request runs on its own virtual thread (Java 21+, a cached
+| thread pool on older runtimes). Year lists are serialized once
+| per (year, state, types) and kept as bytes, answers carry an
+| ETag and Cache-Control so clients and proxies can reuse them.
+|
+|   GET /holidays/{year}                 Year list
+|   GET /holidays/next?count=10          Next holidays from today
+|   GET /holidays/range?from=..&to=..    Holidays between two dates
+|   GET /holidays/is?date=..             Is the date a holiday?
+|
+| All endpoints accept state=BY and types=0,1 (values as for
+| AddHolidayTypeFilter or the HolidayType names). country=AT
+| answers for another country of HolidayCountry, state then takes
+| one of its region codes.
+|
+|   java -jar calculate-holidays.jar [port] [address]
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public final class HolidayServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int MAX_RANGE_YEARS = 100;
+    public static final int MAX_COUNT = 1000;
+    private static final int RESPONSE_CACHE_CAPACITY = 4096;
+    private static final String CONTEXT = "/holidays";
+    private static final String YEAR_CACHE_CONTROL = "public, max-age=86400";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Clock clock;
+    private final HolidayCalculator calculator = HolidayCalculator.Create();
+
+    // Serialized year lists, key see YearKey()
+    private final ConcurrentHashMap<Long, CachedResponse> responses = new ConcurrentHashMap<>();
+    private final Queue<Long> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private HolidayServer(HttpServer server, Clock clock) {
+        this.server = server;
+        this.clock = clock;
+        this.executor = CreateExecutor();
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, this::Handle);
+    }
+
+    /**
+     * Binds and starts the service. Run the JVM with -Dsun.net.httpserver.nodelay=true: headers and body
+     * are written separately, without TCP_NODELAY every keep-alive request waits for the delayed ACK of
+     * the client (about 40 ms). The property applies to all HttpServers of the JVM, so it is not set here;
+     * main() sets it unless given.
+     *
+     * @param address Address and port, port 0 picks a free port
+     * @param clock Source of "today" for /holidays/next
+     * @return The running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static HolidayServer Start(InetSocketAddress address, Clock clock) throws IOException {
+        HolidayServer holidayServer = new HolidayServer(HttpServer.create(address, 0), clock);
+        holidayServer.server.start();
+        return holidayServer;
+    }
+
+    public static HolidayServer Start(int port) throws IOException {
+        return Start(new InetSocketAddress(port), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Stops accepting requests and waits up to delaySeconds for running ones.
+     *
+     * @param delaySeconds
+     */
+    public void Stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Gettermethods
+    public InetSocketAddress GetAddress() {
+        return server.getAddress();
+    }
+
+    public int GetCachedResponses() {
+        return responses.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Must be set before the HttpServer classes are loaded, see Start
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        InetSocketAddress address = args.length > 1 ? new InetSocketAddress(args[1], port) : new InetSocketAddress(port);
+        HolidayServer holidayServer = Start(address, Clock.systemDefaultZone());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> holidayServer.Stop(1)));
+        System.out.println("CalculateHolidays service on http://" + holidayServer.GetAddress().getHostString() + ":"
+            + holidayServer.GetAddress().getPort() + CONTEXT);
+    }
+
+    /*---------------------------------------------------------------------
+    | Virtual threads are looked up by reflection so the library still
+    | runs on Java 17.
+    +---------------------------------------------------------------------- */
+    private static ExecutorService CreateExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void Handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                SendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            // The HttpServer matches contexts by plain prefix, /holidaysX2026 arrives here as well
+            if (!path.equals(CONTEXT) && !path.startsWith(CONTEXT + "/")) {
+                SendError(exchange, 404, "Unknown endpoint: " + path);
+                return;
+            }
+            String endpoint = path.length() > CONTEXT.length() + 1 ? path.substring(CONTEXT.length() + 1) : "";
+            Map<String, String> query = ParseQuery(exchange.getRequestURI().getRawQuery());
+            switch (endpoint) {
+                case "next":
+                    HandleNext(exchange, query);
+                    break;
+                case "range":
+                    HandleRange(exchange, query);
+                    break;
+                case "is":
+                    HandleIs(exchange, query);
+                    break;
+                default:
+                    HandleYear(exchange, endpoint, query);
+                    break;
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            SendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            SendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void HandleYear(HttpExchange exchange, String endpoint, Map<String, String> query) throws IOException {
+        int year;
+        try {
+            year = Integer.parseInt(endpoint);
+        } catch (NumberFormatException e) {
+            SendError(exchange, 404, "Unknown endpoint: " + exchange.getRequestURI().getPath());
+            return;
+        }
+        CheckYear(year);
+        HolidayCountry country = ParseCountry(query);
+        HolidayFilter filter = ParseFilter(query, country);
+        long key = YearKey(year, country, filter);
+        HolidayRuleSet rules = country == null ? HolidayRuleSet.Active() : country.GetRules();
+        CachedResponse response = responses.get(key);
+        if (response == null || response.rules != rules) {
+            List<HolidayEntry> holidayList = country == null ? calculator.GetHolidays(year, filter) : country.GetHolidays(year, filter);
+            response = new CachedResponse(ToJson(holidayList), rules);
+            // Rules replaced while the list was built: answer, but do not keep it under the old rules
+            HolidayRuleSet after = country == null ? HolidayRuleSet.Active() : country.GetRules();
+            if (after == rules && responses.put(key, response) == null) {
+                insertionOrder.add(key);
+                EvictOverflow();
+            }
+        }
+        Send(exchange, response.body, response.etag, YEAR_CACHE_CONTROL);
+    }
+
+    private void HandleNext(HttpExchange exchange, Map<String, String> query) throws IOException {
+        int count = ParseInt(query, "count", 10);
+        if (count < 1 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_COUNT);
+        }
+        HolidayCountry country = ParseCountry(query);
+        HolidayFilter filter = ParseFilter(query, country);
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<HolidayEntry> holidayList = country == null ? calculator.GetUpcomingHolidays(count, clock, filter)
+            : CountryHolidays(country, now.toLocalDate(), now.toLocalDate().plusYears(MAX_RANGE_YEARS), filter, count);
+        // Valid until the next day starts
+        long secondsLeft = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).getSeconds();
+        byte[] body = ToJson(holidayList);
+        Send(exchange, body, ETag(body), "public, max-age=" + secondsLeft);
+    }
+
+    private void HandleRange(HttpExchange exchange, Map<String, String> query) throws IOException {
+        LocalDate from = LocalDate.parse(Require(query, "from"));
+        LocalDate to = LocalDate.parse(Require(query, "to"));
+        CheckYear(from.getYear());
+        if (to.getYear() - from.getYear() >= MAX_RANGE_YEARS) {
+            throw new IllegalArgumentException("Range is limited to " + MAX_RANGE_YEARS + " years");
+        }
+        HolidayCountry country = ParseCountry(query);
+        HolidayFilter filter = ParseFilter(query, country);
+        ByteArrayOutputStream json = new ByteArrayOutputStream(8192);
+        try (HolidayExporter exporter = HolidayExporter.Create(HolidayExportFormat.JSON, json)) {
+            if (country == null) {
+                exporter.WriteAll(calculator.GetHolidaysBetween(from, to, filter));
+            } else {
+                exporter.WriteAll(CountryHolidays(country, from, to, filter, Integer.MAX_VALUE));
+            }
+        }
+        byte[] body = json.toByteArray();
+        Send(exchange, body, ETag(body), YEAR_CACHE_CONTROL);
+    }
+
+    private void HandleIs(HttpExchange exchange, Map<String, String> query) throws IOException {
+        LocalDate date = LocalDate.parse(Require(query, "date"));
+        HolidayCountry country = ParseCountry(query);
+        HolidayFilter filter = ParseFilter(query, country);
+        int typeMask = filter.GetTypeMask();
+        boolean holiday;
+        List<HolidayEntry> entries;
+        if (country == null) {
+            FederalState state = filter.GetStateMask() == 0 ? null : FederalState.FromOrdinal(Integer.numberOfTrailingZeros(filter.GetStateMask()));
+            holiday = typeMask == 0 ? calculator.IsHoliday(date, state) : calculator.IsHoliday(date, state, filter);
+            entries = calculator.GetHolidaysOn(date, state);
+        } else {
+            String region = query.get("state");
+            region = region == null || region.isEmpty() ? null : region;
+            entries = country.GetHolidaysOn(date, region);
+            if (typeMask == 0) {
+                holiday = country.IsHoliday(date, region);
+            } else {
+                holiday = false;
+                for (HolidayEntry entry : entries) {
+                    holiday |= (typeMask & entry.GetType().GetMask()) != 0;
+                }
+            }
+        }
+        StringWriter json = new StringWriter(256);
+        json.append("{\"date\":\"").append(date.toString()).append("\",\"holiday\":").append(String.valueOf(holiday)).append(",\"entries\":");
+        try (HolidayExporter exporter = HolidayExporter.Create(HolidayExportFormat.JSON, json)) {
+            for (HolidayEntry entry : entries) {
+                if (typeMask == 0 || (typeMask & entry.GetType().GetMask()) != 0) {
+                    exporter.Write(entry);
+                }
+            }
+        }
+        byte[] body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+        Send(exchange, body, ETag(body), YEAR_CACHE_CONTROL);
+    }
+
+    private void EvictOverflow() {
+        while (responses.size() > RESPONSE_CACHE_CAPACITY) {
+            Long oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            responses.remove(oldest);
+        }
+    }
+
+    // year | country (0 = Germany) | region (0 = none, else bit + 1) | type mask (6 bits). The filters hold one region at most.
+    private static long YearKey(int year, HolidayCountry country, HolidayFilter filter) {
+        long countryNumber = country == null ? 0 : HolidayCountry.GetAvailableCountries().indexOf(country.GetCountryCode()) + 1;
+        int stateMask = filter.GetStateMask();
+        int region = stateMask == 0 ? 0 : Integer.numberOfTrailingZeros(stateMask) + 1;
+        return ((long) year << 32) | (countryNumber << 16) | (region << 8) | filter.GetTypeMask();
+    }
+
+    /*---------------------------------------------------------------------
+    | Holidays of another country between two dates, year by year from
+    | the cache of the country, at most limit entries.
+    +---------------------------------------------------------------------- */
+    private static List<HolidayEntry> CountryHolidays(HolidayCountry country, LocalDate from, LocalDate to, HolidayFilter filter, int limit) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        List<HolidayEntry> holidayList = new ArrayList<>();
+        for (int year = from.getYear(); year <= to.getYear() && holidayList.size() < limit; year++) {
+            for (HolidayEntry entry : country.GetHolidays(year, filter)) {
+                if (entry.GetEpochDay() >= first && entry.GetEpochDay() <= last && holidayList.size() < limit) {
+                    holidayList.add(entry);
+                }
+            }
+        }
+        return holidayList;
+    }
+
+    private static void CheckYear(int year) {
+        if (year < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + year);
+        }
+    }
+
+    /**
+     * country: ISO code, none or DE for Germany.
+     * 
+     * @return The country, null for Germany
+     */
+    private static HolidayCountry ParseCountry(Map<String, String> query) {
+        String code = query.get("country");
+        if (code == null || code.isEmpty() || code.equalsIgnoreCase(GermanHolidayProvider.COUNTRY_CODE)) {
+            return null;
+        }
+        return HolidayCountry.Of(code);
+    }
+
+    /**
+     * state: one state (code or full name), or a region code of the country. types: comma separated values or HolidayType names.
+     */
+    private static HolidayFilter ParseFilter(Map<String, String> query, HolidayCountry country) {
+        HolidayFilter filter = HolidayFilter.ALL;
+        String region = query.get("state");
+        if (region != null && !region.isEmpty() && country != null) {
+            filter = country.GetFilter(region);
+        } else if (region != null && !region.isEmpty()) {
+            FederalState state = FederalState.Parse(region);
+            if (state == null) {
+                throw new IllegalArgumentException("Unknown state: " + region);
+            }
+            filter = filter.WithStates(state);
+        }
+        String types = query.get("types");
+        if (types != null && !types.isEmpty()) {
+            for (String value : types.split(",")) {
+                filter = filter.WithTypes(ParseType(value.trim()));
+            }
+        }
+        return filter;
+    }
+
+    private static HolidayType ParseType(String value) {
+        HolidayType type;
+        try {
+            type = HolidayType.FromValue(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            try {
+                type = HolidayType.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException unknown) {
+                type = null;
+            }
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown holiday type: " + value);
+        }
+        return type;
+    }
+
+    private static Map<String, String> ParseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String Require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int ParseInt(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static void Send(HttpExchange exchange, byte[] body, String etag, String cacheControl) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", Integer.toString(body.length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static void SendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        AppendString(json, message == null ? "" : message);
+        byte[] body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static String ETag(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length) + "\"";
+    }
+
+    private static byte[] ToJson(List<HolidayEntry> holidayList) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(holidayList.size() * 128 + 2);
+        try (HolidayExporter exporter = HolidayExporter.Create(HolidayExportFormat.JSON, json)) {
+            exporter.WriteAll(holidayList);
+        }
+        return json.toByteArray();
+    }
+
+    private static void AppendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /*---------------------------------------------------------------------
+    | Serialized year list. The rule set is kept to notice a call of
+    | HolidayRuleSet.SetActive.
+    +---------------------------------------------------------------------- */
+    private static final class CachedResponse {
+        final byte[] body;
+        final String etag;
+        final HolidayRuleSet rules;
+
+        CachedResponse(byte[] body, HolidayRuleSet rules) {
+            this.body = body;
+            this.etag = ETag(body);
+            this.rules = rules;
+        }
+    }
+}
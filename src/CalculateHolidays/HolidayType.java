@@ -0,0 +1,78 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayType
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The types of holidays. The numeric value matches the values used
+| by CalculateHolidays.AddHolidayTypeFilter.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public enum HolidayType {
+    NATIONAL_HOLIDAY("Gesetzlicher Feiertag"),
+    REGIONAL_HOLIDAY("Regionaler Feiertag"),
+    REMEMBRANCE_DAY("Gedenktag"),
+    EVENT("Ereignis"),
+    PRE_CHRISTMAS_DAY("Vorweihnachtstag"),
+    END_OF_YEAR("Jahresende");
+
+    private static final HolidayType[] VALUES = values();
+
+    private final String name;
+
+    HolidayType(String name) {
+        this.name = name;
+    }
+
+    // Gettermethods
+    public int GetValue() {
+        return ordinal();
+    }
+
+    public String GetName() {
+        return name;
+    }
+
+    public int GetMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @param holidayTypeValue 0 = National holiday ... 5 = end of year
+     * @return The type or null if the value is out of range.
+     */
+    public static HolidayType FromValue(int holidayTypeValue) {
+        if (holidayTypeValue < 0 || holidayTypeValue >= VALUES.length) {
+            return null;
+        }
+        return VALUES[holidayTypeValue];
+    }
+
+    /**
+     * @param holidayTypeName German name as returned by HolidayEntry.GetHolidayType()
+     * @return The type or null if the name is unknown.
+     */
+    public static HolidayType FromName(String holidayTypeName) {
+        for (HolidayType type : VALUES) {
+            if (type.name.equals(holidayTypeName)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public static int Count() {
+        return VALUES.length;
+    }
+}
@@ -0,0 +1,147 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayYearCache
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Bounded cache of the HolidayYearSnapshot instances of one
+| country. Reads do not lock. When the capacity is exceeded, the
+| oldest inserted year is evicted (FIFO). Inserting, evicting and
+| clearing share one lock, so the insertion order always lists
+| the cached years. HolidayCache holds the
+| German one, every HolidayCountry its own.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+final class HolidayYearCache {
+
+    private final Supplier<HolidayRuleSet> rules;
+    private final int regionCount;
+    private final ConcurrentHashMap<Integer, HolidayYearSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Queue<Integer> insertionOrder = new ArrayDeque<>();     // guarded by this
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private volatile int capacity;
+
+    /**
+     * @param rules The current rules, a miss calculates the year from them
+     * @param regionCount Number of regions of the rules
+     * @param capacity Maximum number of cached years, 0 disables the cache
+     */
+    HolidayYearCache(Supplier<HolidayRuleSet> rules, int regionCount, int capacity) {
+        this.rules = rules;
+        this.regionCount = regionCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Two threads missing the same year at the same time may both calculate it, but only one
+     * snapshot is kept and returned to both. A snapshot of other rules than the current ones
+     * counts as a miss, and a snapshot is only stored if its rules are still current, so a year
+     * that was calculated while the rules were replaced never outlives the Clear() that follows.
+     */
+    HolidayYearSnapshot GetSnapshot(int year) {
+        HolidayRuleSet current = rules.get();
+        HolidayYearSnapshot snapshot = snapshots.get(year);
+        if (snapshot != null && snapshot.GetRules() == current) {
+            hitCount.increment();
+            return snapshot;
+        }
+        missCount.increment();
+        snapshot = HolidayYearSnapshot.Build(year, current, regionCount);
+        if (capacity == 0) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (rules.get() != current) {
+                return snapshot;
+            }
+            HolidayYearSnapshot existing = snapshots.get(year);
+            if (existing != null && existing.GetRules() == current) {
+                return existing;
+            }
+            snapshots.put(year, snapshot);
+            if (existing == null) {
+                insertionOrder.add(year);
+            }
+            EvictOverflow();
+        }
+        return snapshot;
+    }
+
+    synchronized void SetCapacity(int maxYears) {
+        if (maxYears < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + maxYears);
+        }
+        capacity = maxYears;
+        EvictOverflow();
+    }
+
+    synchronized void Clear() {
+        snapshots.clear();
+        insertionOrder.clear();
+    }
+
+    void ResetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    // Caller holds the lock
+    private void EvictOverflow() {
+        while (snapshots.size() > capacity) {
+            Integer oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (snapshots.remove(oldest) != null) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    // Gettermethods
+    int GetCapacity() {
+        return capacity;
+    }
+
+    int GetSize() {
+        return snapshots.size();
+    }
+
+    long GetHitCount() {
+        return hitCount.sum();
+    }
+
+    long GetMissCount() {
+        return missCount.sum();
+    }
+
+    long GetEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    double GetHitRate() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
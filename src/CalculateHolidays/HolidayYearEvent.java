@@ -0,0 +1,42 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayYearEvent
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| JDK Flight Recorder event of one year calculation for the
+| HolidayCache. Costs nothing while no recording is running:
+|
+|   java -XX:StartFlightRecording:filename=rec.jfr ...
+|   jfr print --events CalculateHolidays.YearComputation rec.jfr
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("CalculateHolidays.YearComputation")
+@Label("Holiday Year Computation")
+@Category("CalculateHolidays")
+@Description("Calculation of all holidays of one year")
+final class HolidayYearEvent extends Event {
+
+    @Label("Year")
+    int year;
+
+    @Label("Entries")
+    int entries;
+}
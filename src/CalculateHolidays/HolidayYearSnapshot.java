@@ -0,0 +1,97 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       HolidayYearSnapshot
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Immutable, sorted and unfiltered holiday list of a single year
+| together with its HolidayIndex for constant-time lookups.
+| Instances are shared between threads through HolidayCache.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class HolidayYearSnapshot {
+
+    private final int year;
+    private final List<HolidayEntry> entries;
+    private final HolidayIndex index;
+    private final HolidayRuleSet rules;
+
+    private HolidayYearSnapshot(int year, List<HolidayEntry> entries, int regionCount, HolidayRuleSet rules) {
+        this.year = year;
+        this.entries = entries;
+        this.index = HolidayIndex.Build(year, entries, regionCount);
+        this.rules = rules;
+    }
+
+    /**
+     * Calculates all holidays of the given year once and freezes the list.
+     * 
+     * @param year
+     * @return The snapshot of the year
+     */
+    static HolidayYearSnapshot Build(int year) {
+        return Build(year, HolidayRuleSet.Active(), FederalState.Count());
+    }
+
+    /**
+     * Calculates all holidays of the given year of a HolidayCountry once and freezes the list.
+     * 
+     * @param year
+     * @param rules Rules of the country
+     * @param regionCount Number of regions of the country
+     * @return The snapshot of the year
+     */
+    static HolidayYearSnapshot Build(int year, HolidayRuleSet rules, int regionCount) {
+        long started = HolidayMetrics.Start();
+        long allocated = HolidayMetrics.StartAllocation();
+        HolidayYearEvent event = new HolidayYearEvent();
+        event.begin();
+        ArrayList<HolidayEntry> holidayList = rules.Evaluate(year, HolidayFilter.ALL);
+        HolidayYearSnapshot snapshot = new HolidayYearSnapshot(year, Collections.unmodifiableList(holidayList), regionCount, rules);
+        if (event.shouldCommit()) {
+            event.year = year;
+            event.entries = holidayList.size();
+            event.commit();
+        }
+        HolidayMetrics.RecordYear(year, holidayList.size(), started, allocated);
+        return snapshot;
+    }
+
+    // Gettermethods
+    public int GetYear() {
+        return year;
+    }
+
+    /**
+     * @return All holidays of the year, sorted by date. The list is read-only.
+     */
+    public List<HolidayEntry> GetEntries() {
+        return entries;
+    }
+
+    HolidayIndex GetIndex() {
+        return index;
+    }
+
+    /**
+     * @return The rules the snapshot was calculated from
+     */
+    HolidayRuleSet GetRules() {
+        return rules;
+    }
+}
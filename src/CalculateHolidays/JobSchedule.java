@@ -0,0 +1,363 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       JobSchedule
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| When a job of the HolidayScheduler fires, in the local time of
+| one federal state. Two kinds:
+|
+|   cron:    "minute hour day-of-month month day-of-week [policy]"
+|            with *, lists, ranges and steps, e.g. "0 6 * * 1-5".
+|            The policy decides what happens on days that are no
+|            working days: run, skip (default), next or previous
+|            working day.
+|   workday: "workday n HH:MM", the n-th working day of every
+|            month, negative n counts from the end of the month.
+|
+| Next fire times come from the HolidayIndex: the matching days of
+| a month are a bitmask that is combined with the working days of
+| the month, the n-th working day is a binary search over the
+| cumulative working days. No calculation walks day by day.
+| Instances are immutable.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+public final class JobSchedule {
+
+    /**
+     * What a cron schedule does on a matching day that is a weekend or holiday in the state.
+     */
+    public enum HolidayPolicy {
+        RUN,                    // fire anyway
+        SKIP,                   // do not fire
+        NEXT_WORKING_DAY,       // fire on the next working day instead
+        PREVIOUS_WORKING_DAY    // fire on the previous working day instead
+    }
+
+    // Matching days more than this before the start of a search can still be shifted into it
+    private static final int MAX_SHIFT_DAYS = 21;
+    // Without a fire time within this many years there is none
+    private static final int MAX_SEARCH_YEARS = 28;
+
+    private final String spec;
+    private final FederalState state;
+    private final HolidayPolicy policy;
+    // cron
+    private final long minutes;             // bit n = minute n
+    private final int hours;                // bit n = hour n
+    private final int daysOfMonth;          // bit n = day n + 1
+    private final int months;               // bit n = month n + 1
+    private final int daysOfWeek;           // bit n = ISO weekday n + 1 (Monday = bit 0)
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+    // workday
+    private final int workingDay;           // 0 = cron schedule
+    private final LocalTime time;
+
+    private JobSchedule(String spec, FederalState state, HolidayPolicy policy, long minutes, int hours, int daysOfMonth, int months,
+                        int daysOfWeek, boolean dayOfMonthRestricted, boolean dayOfWeekRestricted, int workingDay, LocalTime time) {
+        this.spec = spec;
+        this.state = state;
+        this.policy = policy;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.dayOfMonthRestricted = dayOfMonthRestricted;
+        this.dayOfWeekRestricted = dayOfWeekRestricted;
+        this.workingDay = workingDay;
+        this.time = time;
+    }
+
+    /**
+     * @param expression "minute hour day-of-month month day-of-week". Fields take *, n, n-m, lists and /step.
+     *        Day of week 0 or 7 is Sunday. Restricting both day fields matches either, as in cron.
+     * @param state The state or null for nationwide holidays only.
+     * @param policy
+     * @return The schedule
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static JobSchedule Cron(String expression, FederalState state, HolidayPolicy policy) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 'minute hour day-of-month month day-of-week': " + expression);
+        }
+        long minutes = ParseField(fields[0], 0, 59, expression);
+        int hours = (int) ParseField(fields[1], 0, 23, expression);
+        int daysOfMonth = (int) (ParseField(fields[2], 1, 31, expression) >>> 1);
+        int months = (int) (ParseField(fields[3], 1, 12, expression) >>> 1);
+        long cronWeekdays = ParseField(fields[4], 0, 7, expression);
+        // cron: bit 0 and 7 = Sunday, bit 1 = Monday; ISO: bit 0 = Monday, bit 6 = Sunday
+        int daysOfWeek = (int) ((cronWeekdays >>> 1) & 0x3F) | (int) (((cronWeekdays | cronWeekdays >>> 7) & 1) << 6);
+        return new JobSchedule(expression.trim(), state, policy, minutes, hours, daysOfMonth, months, daysOfWeek,
+            !fields[2].equals("*"), !fields[4].equals("*"), 0, null);
+    }
+
+    /**
+     * @param n 1 = first working day of the month, -1 = last. Months with fewer working days are left out.
+     * @param time
+     * @param state The state or null for nationwide holidays only.
+     * @return The schedule
+     */
+    public static JobSchedule NthWorkingDay(int n, LocalTime time, FederalState state) {
+        if (n == 0 || n < -23 || n > 23) {
+            throw new IllegalArgumentException("Working day must be 1 - 23 or -1 - -23: " + n);
+        }
+        return new JobSchedule("workday " + n + " " + time, state, HolidayPolicy.RUN, 0, 0, 0, 0, 0, false, false, n, time.withSecond(0).withNano(0));
+    }
+
+    /**
+     * @param spec "workday n HH:MM" or a cron expression, optionally followed by run, skip, next or previous
+     * @param state The state or null for nationwide holidays only.
+     * @return The schedule
+     * @throws IllegalArgumentException if the spec is malformed
+     */
+    public static JobSchedule Parse(String spec, FederalState state) {
+        String[] words = spec.trim().split("\\s+");
+        if (words[0].equalsIgnoreCase("workday")) {
+            if (words.length != 3) {
+                throw new IllegalArgumentException("Expected 'workday n HH:MM': " + spec);
+            }
+            try {
+                return NthWorkingDay(Integer.parseInt(words[1]), LocalTime.parse(words[2]), state);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Expected 'workday n HH:MM': " + spec, e);
+            }
+        }
+        if (words.length == 6) {
+            HolidayPolicy policy = ParsePolicy(words[5], spec);
+            return Cron(spec.trim().substring(0, spec.trim().lastIndexOf(words[5])), state, policy);
+        }
+        return Cron(spec, state, HolidayPolicy.SKIP);
+    }
+
+    private static HolidayPolicy ParsePolicy(String word, String spec) {
+        switch (word.toLowerCase(Locale.ROOT)) {
+            case "run":
+                return HolidayPolicy.RUN;
+            case "skip":
+                return HolidayPolicy.SKIP;
+            case "next":
+                return HolidayPolicy.NEXT_WORKING_DAY;
+            case "previous":
+                return HolidayPolicy.PREVIOUS_WORKING_DAY;
+            default:
+                throw new IllegalArgumentException("Unknown policy '" + word + "', expected run, skip, next or previous: " + spec);
+        }
+    }
+
+    // Bit n set for every value n the field matches
+    private static long ParseField(String field, int min, int max, String expression) {
+        long bits = 0;
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            String range = part;
+            try {
+                if (slash >= 0) {
+                    step = Integer.parseInt(part.substring(slash + 1));
+                    range = part.substring(0, slash);
+                }
+                int from;
+                int to;
+                if (range.equals("*")) {
+                    from = min;
+                    to = max;
+                } else if (range.indexOf('-') > 0) {
+                    from = Integer.parseInt(range.substring(0, range.indexOf('-')));
+                    to = Integer.parseInt(range.substring(range.indexOf('-') + 1));
+                } else {
+                    from = Integer.parseInt(range);
+                    to = slash >= 0 ? max : from;
+                }
+                if (from < min || to > max || from > to || step < 1) {
+                    throw new IllegalArgumentException("Field '" + field + "' must be within " + min + " - " + max + ": " + expression);
+                }
+                for (int value = from; value <= to; value += step) {
+                    bits |= 1L << value;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid field '" + field + "': " + expression, e);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @param after
+     * @param zone Time zone of the wall-clock times of the schedule
+     * @return The first fire time strictly after the given instant, null if there is none.
+     */
+    public Instant GetNextFire(Instant after, ZoneId zone) {
+        LocalDateTime next = GetNextFire(LocalDateTime.ofInstant(after, zone));
+        return next == null ? null : next.atZone(zone).toInstant();
+    }
+
+    /**
+     * @param after
+     * @return The first fire time strictly after the given time, null if there is none.
+     */
+    public LocalDateTime GetNextFire(LocalDateTime after) {
+        if (workingDay != 0) {
+            return NextWorkingDayFire(after);
+        }
+        LocalDate day = after.toLocalDate();
+        LocalTime afterTime = after.toLocalTime();
+        LocalDate end = day.plusYears(MAX_SEARCH_YEARS);
+        switch (policy) {
+            case RUN:
+            case SKIP: {
+                boolean workingOnly = policy == HolidayPolicy.SKIP;
+                for (LocalDate date = NextMatch(day, end, workingOnly); date != null; date = NextMatch(date.plusDays(1), end, workingOnly)) {
+                    LocalTime fire = FirstTimeAfter(date.equals(day) ? afterTime : null);
+                    if (fire != null) {
+                        return date.atTime(fire);
+                    }
+                }
+                return null;
+            }
+            default: {
+                boolean forward = policy == HolidayPolicy.NEXT_WORKING_DAY;
+                // A match before the day can move onto it, the fire days grow with the matches
+                LocalDate from = forward ? day.minusDays(MAX_SHIFT_DAYS) : day;
+                for (LocalDate date = NextMatch(from, end, false); date != null; date = NextMatch(date.plusDays(1), end, false)) {
+                    LocalDate fireDay = Shift(date, forward);
+                    if (fireDay.isBefore(day)) {
+                        continue;
+                    }
+                    LocalTime fire = FirstTimeAfter(fireDay.equals(day) ? afterTime : null);
+                    if (fire != null) {
+                        return fireDay.atTime(fire);
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    private LocalDate Shift(LocalDate date, boolean forward) {
+        if (WorkingDayCalculator.IsWorkingDay(date, state)) {
+            return date;
+        }
+        return WorkingDayCalculator.AddWorkingDays(date, forward ? 1 : -1, state);
+    }
+
+    /*---------------------------------------------------------------------
+    | First day from the given one that matches the day fields, month by
+    | month with bitmasks: bit n of a mask is day n + 1 of the month.
+    +---------------------------------------------------------------------- */
+    private LocalDate NextMatch(LocalDate from, LocalDate end, boolean workingOnly) {
+        YearMonth month = YearMonth.from(from);
+        int firstDay = from.getDayOfMonth() - 1;
+        while (!month.atDay(1).isAfter(end)) {
+            if ((months & (1 << (month.getMonthValue() - 1))) != 0) {
+                int mask = MatchingDays(month);
+                if (workingOnly) {
+                    mask &= HolidayCache.GetSnapshot(month.getYear()).GetIndex().GetWorkingDayBits(state, month.atDay(1).getDayOfYear(), month.lengthOfMonth());
+                }
+                mask &= -1 << firstDay;
+                if (mask != 0) {
+                    return month.atDay(Integer.numberOfTrailingZeros(mask) + 1);
+                }
+            }
+            month = month.plusMonths(1);
+            firstDay = 0;
+        }
+        return null;
+    }
+
+    private int MatchingDays(YearMonth month) {
+        int length = month.lengthOfMonth();
+        int all = (int) ((1L << length) - 1);
+        int byDayOfMonth = daysOfMonth & all;
+        // Weekday pattern of the month: repeat the 7 weekday bits, starting with the weekday of the 1st
+        int firstWeekday = month.atDay(1).getDayOfWeek().getValue() - 1;
+        int week = ((daysOfWeek | daysOfWeek << 7) >>> firstWeekday) & 0x7F;
+        int byDayOfWeek = (week | week << 7 | week << 14 | week << 21 | week << 28) & all;
+        if (dayOfMonthRestricted && dayOfWeekRestricted) {
+            return byDayOfMonth | byDayOfWeek;
+        }
+        return dayOfMonthRestricted ? byDayOfMonth : dayOfWeekRestricted ? byDayOfWeek : all;
+    }
+
+    // First time of the day strictly after the given one, the first of the day for null. Null if none is left.
+    private LocalTime FirstTimeAfter(LocalTime after) {
+        int hour = after == null ? 0 : after.getHour();
+        int hourMask = hours & (-1 << hour);
+        while (hourMask != 0) {
+            int candidate = Integer.numberOfTrailingZeros(hourMask);
+            long minuteMask = minutes;
+            if (after != null && candidate == after.getHour()) {
+                // Strictly after: fire times are full minutes, so the minute of the given time is past
+                minuteMask = after.getMinute() == 59 ? 0 : minutes & (-1L << (after.getMinute() + 1));
+            }
+            if (minuteMask != 0) {
+                return LocalTime.of(candidate, Long.numberOfTrailingZeros(minuteMask));
+            }
+            hourMask &= hourMask - 1;
+        }
+        return null;
+    }
+
+    private LocalDateTime NextWorkingDayFire(LocalDateTime after) {
+        YearMonth month = YearMonth.from(after);
+        YearMonth end = month.plusYears(MAX_SEARCH_YEARS);
+        for (; !month.isAfter(end); month = month.plusMonths(1)) {
+            HolidayIndex index = HolidayCache.GetSnapshot(month.getYear()).GetIndex();
+            int firstDayOfYear = month.atDay(1).getDayOfYear();
+            int before = index.CountWorkingDays(state, firstDayOfYear - 1);
+            int count = index.CountWorkingDays(state, firstDayOfYear + month.lengthOfMonth() - 1) - before;
+            if (Math.abs(workingDay) > count) {
+                continue;
+            }
+            int target = workingDay > 0 ? before + workingDay : before + count + workingDay + 1;
+            LocalDateTime fire = LocalDate.ofYearDay(month.getYear(), index.FindWorkingDay(state, target)).atTime(time);
+            if (fire.isAfter(after)) {
+                return fire;
+            }
+        }
+        return null;
+    }
+
+    // Gettermethods
+    public String GetSpec() {
+        return spec;
+    }
+
+    /**
+     * @return The state or null for nationwide holidays only.
+     */
+    public FederalState GetState() {
+        return state;
+    }
+
+    public HolidayPolicy GetPolicy() {
+        return policy;
+    }
+
+    @Override
+    public String toString() {
+        return spec + (workingDay == 0 ? " " + policy : "") + (state == null ? "" : " " + state.GetCode());
+    }
+}
@@ -0,0 +1,112 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       MovableFeast
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The days that move with Easter Sunday. Each names the id of its
+| EASTER rule; name and distance to Easter come from the active
+| HolidayRuleSet, so custom rules apply to the batch methods of
+| EasterTable as well.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public enum MovableFeast {
+    ROSE_MONDAY("RoseMonday"),
+    SHROVE_TUESDAY("ShroveTuesday"),
+    ASH_WEDNESDAY("AshWednesday"),
+    PALM_SUNDAY("PalmSunday"),
+    MAUNDY_THURSDAY("MaundyThursday"),
+    GOOD_FRIDAY("GoodFriday"),
+    HOLY_SATURDAY("HolySaturday"),
+    EASTER_SUNDAY("EasterSunday"),
+    EASTER_MONDAY("EasterMonday"),
+    ASCENSION_OF_CHRIST("AscensionOfChrist"),
+    PENTECOST_SUNDAY("PentecostSunday"),
+    WHIT_MONDAY("WhitMonday"),
+    CORPUS_CHRISTI("CorpusChristi");
+
+    private static final MovableFeast[] VALUES = values();
+    private static volatile Offsets offsets;
+
+    private final String ruleId;
+
+    MovableFeast(String ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    // The EASTER rule of the active rules, the built-in one if the active rules have none with the id
+    private HolidayRule Rule() {
+        HolidayRuleSet rules = HolidayRuleSet.Active();
+        int index = rules.IndexOf(ruleId);
+        if (index < 0 || rules.GetRules().get(index).GetKind() != HolidayRule.Kind.EASTER) {
+            rules = HolidayRuleSet.Default();
+            index = rules.IndexOf(ruleId);
+        }
+        return rules.GetRules().get(index);
+    }
+
+    /**
+     * @return Offsets of all feasts by ordinal, for the active rules. Shared, must not be changed.
+     */
+    static int[] GetOffsets() {
+        HolidayRuleSet rules = HolidayRuleSet.Active();
+        Offsets current = offsets;
+        if (current == null || current.rules != rules) {
+            int[] values = new int[VALUES.length];
+            for (MovableFeast feast : VALUES) {
+                values[feast.ordinal()] = feast.Rule().GetOffset();
+            }
+            current = new Offsets(rules, values);
+            offsets = current;
+        }
+        return current.values;
+    }
+
+    // Gettermethods
+    public String GetRuleId() {
+        return ruleId;
+    }
+
+    /**
+     * @return Name of the rule in the active HolidayRuleSet
+     */
+    public String GetName() {
+        return Rule().GetName();
+    }
+
+    /**
+     * @return Days after (negative: before) Easter Sunday, from the rule in the active HolidayRuleSet
+     */
+    public int GetOffset() {
+        return Rule().GetOffset();
+    }
+
+    public static MovableFeast FromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int Count() {
+        return VALUES.length;
+    }
+
+    private static final class Offsets {
+        final HolidayRuleSet rules;
+        final int[] values;
+
+        Offsets(HolidayRuleSet rules, int[] values) {
+            this.rules = rules;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       Region
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| One node of the region tree of HolidayRegions: state, government
+| district, district or municipality, identified by its Amtlicher
+| Gemeindeschlüssel (AGS). Immutable.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public final class Region {
+
+    private final String code;
+    private final String name;
+    private final RegionLevel level;
+    private final Region parent;
+    private final FederalState state;
+
+    Region(String code, String name, Region parent) {
+        this.code = code;
+        this.name = name;
+        this.level = RegionLevel.Of(code);
+        this.parent = parent;
+        this.state = FederalState.FromAgs(code);
+    }
+
+    // Gettermethods
+    public String GetCode() {
+        return code;
+    }
+
+    public String GetName() {
+        return name;
+    }
+
+    public RegionLevel GetLevel() {
+        return level;
+    }
+
+    /**
+     * @return The next listed region above, null for a state.
+     */
+    public Region GetParent() {
+        return parent;
+    }
+
+    public FederalState GetState() {
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return code + " " + name;
+    }
+}
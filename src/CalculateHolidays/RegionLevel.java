@@ -0,0 +1,78 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       RegionLevel
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Levels of the Amtlicher Gemeindeschlüssel (AGS). The level of a
+| code follows from its length: 2 digits state, 3 government
+| district (Regierungsbezirk), 5 district (Kreis), 8 municipality.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public enum RegionLevel {
+    STATE(2),
+    GOVERNMENT_DISTRICT(3),
+    DISTRICT(5),
+    MUNICIPALITY(8);
+
+    private static final RegionLevel[] VALUES = values();
+
+    private final int length;
+
+    RegionLevel(int length) {
+        this.length = length;
+    }
+
+    // Gettermethods
+
+    /**
+     * @return Number of digits of a code of this level
+     */
+    public int GetLength() {
+        return length;
+    }
+
+    /**
+     * @param ags
+     * @return The level of the code or null if it is no valid AGS (digits only, known state, length 2, 3, 5 or 8).
+     */
+    public static RegionLevel Of(String ags) {
+        if (ags == null || FederalState.FromAgs(ags) == null) {
+            return null;
+        }
+        for (int i = 0; i < ags.length(); i++) {
+            if (ags.charAt(i) < '0' || ags.charAt(i) > '9') {
+                return null;
+            }
+        }
+        for (RegionLevel level : VALUES) {
+            if (level.length == ags.length()) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    public static boolean IsAgs(String ags) {
+        return Of(ags) != null;
+    }
+
+    public static RegionLevel FromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int Count() {
+        return VALUES.length;
+    }
+}
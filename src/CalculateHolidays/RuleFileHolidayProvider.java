@@ -0,0 +1,77 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       RuleFileHolidayProvider
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Base of the providers whose rules come from a rule file next to
+| this class. The regions are fixed at construction, the file is
+| read on the first LoadRules.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+abstract class RuleFileHolidayProvider implements HolidayProvider {
+
+    private final String countryCode;
+    private final String name;
+    private final String resource;
+    private final Map<String, String> regionNames = new LinkedHashMap<>();
+    private final List<String> regionCodes;
+
+    /**
+     * @param countryCode
+     * @param name
+     * @param resource Rule file next to this class
+     * @param regions Pairs of region code and name, in bit order
+     */
+    RuleFileHolidayProvider(String countryCode, String name, String resource, String... regions) {
+        this.countryCode = countryCode;
+        this.name = name;
+        this.resource = resource;
+        for (int i = 0; i + 1 < regions.length; i += 2) {
+            regionNames.put(regions[i], regions[i + 1]);
+        }
+        this.regionCodes = List.copyOf(new ArrayList<>(regionNames.keySet()));
+    }
+
+    @Override
+    public HolidayRuleSet LoadRules() {
+        return HolidayRuleSet.LoadResource(resource, regionCodes);
+    }
+
+    // Gettermethods
+    @Override
+    public String GetCountryCode() {
+        return countryCode;
+    }
+
+    @Override
+    public String GetName() {
+        return name;
+    }
+
+    @Override
+    public List<String> GetRegionCodes() {
+        return regionCodes;
+    }
+
+    @Override
+    public String GetRegionName(String code) {
+        return regionNames.getOrDefault(code, code);
+    }
+}
@@ -0,0 +1,114 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       ScheduledJob
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| One job registered with a HolidayScheduler. On the timer wheel
+| the link to the next job of the bucket is a field of the job, so
+| the buckets need no further objects. A task that throws does not
+| reach the executor or the scheduler; the exception is kept as
+| GetLastFailure() and the job continues with its next fire time.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.Instant;
+
+public final class ScheduledJob {
+
+    private final String name;
+    private final JobSchedule schedule;
+    private final Runnable task;
+    private final Runnable run = this::Run;    // Handed to the executor, one instance per job
+    private volatile Instant nextFire;
+    private volatile long fireCount;
+    private volatile boolean cancelled;
+    private volatile RuntimeException lastFailure;
+    // Owned by the scheduler
+    long dueTick;
+    ScheduledJob next;
+
+    ScheduledJob(String name, JobSchedule schedule, Runnable task) {
+        this.name = name;
+        this.schedule = schedule;
+        this.task = task;
+    }
+
+    /**
+     * Stops the job. A run that has already been handed to the executor is not interrupted.
+     */
+    public void Cancel() {
+        cancelled = true;
+    }
+
+    void SetNextFire(Instant fire) {
+        nextFire = fire;
+    }
+
+    void Fired() {
+        fireCount++;    // only the scheduler writes
+    }
+
+    void Failed(RuntimeException failure) {
+        lastFailure = failure;
+    }
+
+    private void Run() {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            lastFailure = e;
+        }
+    }
+
+    // The task with the failure handling of Run()
+    Runnable GetRun() {
+        return run;
+    }
+
+    // Gettermethods
+    public String GetName() {
+        return name;
+    }
+
+    public JobSchedule GetSchedule() {
+        return schedule;
+    }
+
+    /**
+     * @return The next fire time, null before the scheduler has taken the job and after the last one.
+     */
+    public Instant GetNextFire() {
+        return nextFire;
+    }
+
+    public long GetFireCount() {
+        return fireCount;
+    }
+
+    public boolean IsCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return The last exception of the task or of handing it to the executor, null if every run succeeded so far.
+     */
+    public RuntimeException GetLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + schedule + "] next " + nextFire;
+    }
+}
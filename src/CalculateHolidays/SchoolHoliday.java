@@ -0,0 +1,91 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       SchoolHoliday
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| One school holiday period of a federal state, first and last day
+| included. Immutable, stored and indexed by SchoolHolidays.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+
+public final class SchoolHoliday {
+
+    private final FederalState state;
+    private final String name;
+    private final int startEpochDay;
+    private final int endEpochDay;
+
+    public SchoolHoliday(FederalState state, String name, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End before start: " + start + " - " + end);
+        }
+        this.state = state;
+        this.name = name;
+        this.startEpochDay = (int) start.toEpochDay();
+        this.endEpochDay = (int) end.toEpochDay();
+    }
+
+    public boolean Contains(LocalDate date) {
+        long day = date.toEpochDay();
+        return day >= startEpochDay && day <= endEpochDay;
+    }
+
+    /**
+     * @param from
+     * @param to Included
+     * @return True if the period shares at least one day with the range.
+     */
+    public boolean Overlaps(LocalDate from, LocalDate to) {
+        return from.toEpochDay() <= endEpochDay && to.toEpochDay() >= startEpochDay;
+    }
+
+    // Gettermethods
+    public FederalState GetState() {
+        return state;
+    }
+
+    public String GetName() {
+        return name;
+    }
+
+    public LocalDate GetStart() {
+        return LocalDate.ofEpochDay(startEpochDay);
+    }
+
+    public LocalDate GetEnd() {
+        return LocalDate.ofEpochDay(endEpochDay);
+    }
+
+    /**
+     * @return Number of days, first and last day included.
+     */
+    public int GetDays() {
+        return endEpochDay - startEpochDay + 1;
+    }
+
+    int GetStartEpochDay() {
+        return startEpochDay;
+    }
+
+    int GetEndEpochDay() {
+        return endEpochDay;
+    }
+
+    @Override
+    public String toString() {
+        return state.GetCode() + " " + name + " " + GetStart() + " - " + GetEnd();
+    }
+}
@@ -0,0 +1,341 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       SchoolHolidays
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| School holiday periods of the federal states, read from a data
+| file. The dates are set by the states every year, so no periods
+| are built in: Default() holds the file given with
+| -DCalculateHolidays.schoolholidays=<path>, empty without.
+|
+| Per state the periods are kept in arrays sorted by start, with
+| the running maximum of the ends. "Is this date in a school
+| holiday" is one binary search, "which periods overlap this range"
+| a binary search plus the matches. A second set of arrays holds
+| the union of the periods for counting school days together with
+| WorkingDayCalculator.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public final class SchoolHolidays {
+
+    public static final String SCHOOL_HOLIDAYS_PROPERTY = "CalculateHolidays.schoolholidays";
+
+    private static final SchoolHolidays DEFAULT = LoadDefault();
+
+    private final List<SchoolHoliday> periods;
+    private final StateIndex[] indexes = new StateIndex[FederalState.Count()];
+
+    private SchoolHolidays(List<SchoolHoliday> periods) {
+        List<SchoolHoliday> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparingInt(SchoolHoliday::GetStartEpochDay).thenComparingInt(SchoolHoliday::GetEndEpochDay));
+        this.periods = Collections.unmodifiableList(sorted);
+        for (int i = 0; i < indexes.length; i++) {
+            FederalState state = FederalState.FromOrdinal(i);
+            List<SchoolHoliday> ofState = new ArrayList<>();
+            for (SchoolHoliday period : sorted) {
+                if (period.GetState() == state) {
+                    ofState.add(period);
+                }
+            }
+            indexes[i] = new StateIndex(ofState);
+        }
+    }
+
+    public static SchoolHolidays Of(List<SchoolHoliday> periods) {
+        return new SchoolHolidays(periods);
+    }
+
+    /**
+     * Reads a data file: "state | name | first day | last day" per line, dates as yyyy-mm-dd.
+     * Empty lines and lines starting with # are ignored.
+     *
+     * @param reader
+     * @return The periods
+     * @throws IOException
+     * @throws IllegalArgumentException if a line is malformed, with its line number
+     */
+    public static SchoolHolidays Load(Reader reader) throws IOException {
+        List<SchoolHoliday> periods = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] columns = trimmed.split("\\|", -1);
+            if (columns.length != 4 || columns[1].isBlank()) {
+                throw new IllegalArgumentException("Line " + number + ": Expected 'state | name | first day | last day': " + trimmed);
+            }
+            FederalState state = FederalState.Parse(columns[0].trim());
+            if (state == null) {
+                throw new IllegalArgumentException("Line " + number + ": Unknown state '" + columns[0].trim() + "': " + trimmed);
+            }
+            try {
+                periods.add(new SchoolHoliday(state, columns[1].trim(), LocalDate.parse(columns[2].trim()), LocalDate.parse(columns[3].trim())));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return new SchoolHolidays(periods);
+    }
+
+    public static SchoolHolidays Load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return Load(reader);
+        }
+    }
+
+    private static SchoolHolidays LoadDefault() {
+        String path = System.getProperty(SCHOOL_HOLIDAYS_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return new SchoolHolidays(List.of());
+        }
+        try {
+            return Load(Paths.get(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + SCHOOL_HOLIDAYS_PROPERTY + "=" + path, e);
+        }
+    }
+
+    /**
+     * @return The periods of -DCalculateHolidays.schoolholidays, empty if it is not set.
+     */
+    public static SchoolHolidays Default() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param other
+     * @return New store with the periods of both.
+     */
+    public SchoolHolidays With(SchoolHolidays other) {
+        List<SchoolHoliday> merged = new ArrayList<>(periods);
+        merged.addAll(other.periods);
+        return new SchoolHolidays(merged);
+    }
+
+    /**
+     * @param date
+     * @param state
+     * @return True if the date lies in a school holiday of the state.
+     */
+    public boolean IsSchoolHoliday(LocalDate date, FederalState state) {
+        return indexes[state.ordinal()].Contains((int) date.toEpochDay());
+    }
+
+    public boolean IsSchoolHoliday(LocalDate date, String region) {
+        return IsSchoolHoliday(date, StateOf(region));
+    }
+
+    /**
+     * @param from
+     * @param to Included
+     * @param state
+     * @return The periods of the state that share at least one day with the range, sorted by start. Read-only.
+     */
+    public List<SchoolHoliday> GetPeriods(LocalDate from, LocalDate to, FederalState state) {
+        return indexes[state.ordinal()].Overlapping((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public List<SchoolHoliday> GetPeriods(LocalDate from, LocalDate to, String region) {
+        return GetPeriods(from, to, StateOf(region));
+    }
+
+    /**
+     * @param date
+     * @param state
+     * @return The periods of the state that contain the date. Read-only.
+     */
+    public List<SchoolHoliday> GetPeriodsOn(LocalDate date, FederalState state) {
+        return GetPeriods(date, date, state);
+    }
+
+    /**
+     * @param date
+     * @param state
+     * @return True if the date is a working day of the state (see WorkingDayCalculator) outside its school holidays.
+     */
+    public boolean IsSchoolDay(LocalDate date, FederalState state) {
+        return !IsSchoolHoliday(date, state) && WorkingDayCalculator.IsWorkingDay(date, state);
+    }
+
+    /**
+     * Counts the working days of the state that are not in a school holiday. The working days inside the
+     * periods are counted with WorkingDayCalculator, so the cost grows with the number of periods in the
+     * range, not with its length.
+     *
+     * @param from
+     * @param to Included
+     * @param state
+     * @return Number of school days, 0 if to is before from.
+     */
+    public long CountSchoolDays(LocalDate from, LocalDate to, FederalState state) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        long count = WorkingDayCalculator.CountWorkingDays(from, to, state);
+        StateIndex index = indexes[state.ordinal()];
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        for (int i = index.FirstUnionEndingFrom(first); i < index.unionStarts.length && index.unionStarts[i] <= last; i++) {
+            int start = Math.max(first, index.unionStarts[i]);
+            int end = Math.min(last, index.unionEnds[i]);
+            count -= WorkingDayCalculator.CountWorkingDays(LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(end), state);
+        }
+        return count;
+    }
+
+    public long CountSchoolDays(LocalDate from, LocalDate to, String region) {
+        return CountSchoolDays(from, to, StateOf(region));
+    }
+
+    private static FederalState StateOf(String region) {
+        FederalState state = FederalState.Parse(region);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown state: " + region);
+        }
+        return state;
+    }
+
+    // Gettermethods
+    /**
+     * @return All periods, sorted by start. Read-only.
+     */
+    public List<SchoolHoliday> GetPeriods() {
+        return periods;
+    }
+
+    public int GetSize() {
+        return periods.size();
+    }
+
+    /*---------------------------------------------------------------------
+    | The periods of one state sorted by start. maxEnds[i] is the latest
+    | end among the periods 0..i, so a date is in a holiday exactly when
+    | maxEnds of the last period starting on or before it reaches it.
+    | unionStarts/unionEnds hold the merged, disjoint periods.
+    +---------------------------------------------------------------------- */
+    private static final class StateIndex {
+        final SchoolHoliday[] periods;
+        final int[] starts;
+        final int[] maxEnds;
+        final int[] unionStarts;
+        final int[] unionEnds;
+
+        StateIndex(List<SchoolHoliday> sorted) {
+            int count = sorted.size();
+            this.periods = sorted.toArray(new SchoolHoliday[0]);
+            this.starts = new int[count];
+            this.maxEnds = new int[count];
+            int[] mergedStarts = new int[count];
+            int[] mergedEnds = new int[count];
+            int merged = 0;
+            int maxEnd = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                int start = periods[i].GetStartEpochDay();
+                int end = periods[i].GetEndEpochDay();
+                starts[i] = start;
+                maxEnd = Math.max(maxEnd, end);
+                maxEnds[i] = maxEnd;
+                // Adjacent periods are merged as well, the union is only used for counting
+                if (merged > 0 && start <= mergedEnds[merged - 1] + 1) {
+                    mergedEnds[merged - 1] = Math.max(mergedEnds[merged - 1], end);
+                } else {
+                    mergedStarts[merged] = start;
+                    mergedEnds[merged] = end;
+                    merged++;
+                }
+            }
+            this.unionStarts = Arrays.copyOf(mergedStarts, merged);
+            this.unionEnds = Arrays.copyOf(mergedEnds, merged);
+        }
+
+        // Number of periods starting on or before the day
+        int CountStartingUntil(int day) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] <= day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        boolean Contains(int day) {
+            int count = CountStartingUntil(day);
+            return count > 0 && maxEnds[count - 1] >= day;
+        }
+
+        List<SchoolHoliday> Overlapping(int from, int to) {
+            int count = CountStartingUntil(to);
+            // maxEnds is ascending: skip the prefix whose periods all end before the range
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (maxEnds[middle] < from) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            List<SchoolHoliday> result = new ArrayList<>();
+            for (int i = low; i < count; i++) {
+                if (periods[i].GetEndEpochDay() >= from) {
+                    result.add(periods[i]);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        // First merged period that ends on or after the day
+        int FirstUnionEndingFrom(int day) {
+            int low = 0;
+            int high = unionEnds.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (unionEnds[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
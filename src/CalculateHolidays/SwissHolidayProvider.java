@@ -0,0 +1,53 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       SwissHolidayProvider
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| The Swiss holidays from holidays-ch.rules, the 26 cantons as
+| regions.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+public final class SwissHolidayProvider extends RuleFileHolidayProvider {
+
+    public SwissHolidayProvider() {
+        super("CH", "Schweiz", "holidays-ch.rules",
+            "AG", "Aargau",
+            "AI", "Appenzell Innerrhoden",
+            "AR", "Appenzell Ausserrhoden",
+            "BE", "Bern",
+            "BL", "Basel-Landschaft",
+            "BS", "Basel-Stadt",
+            "FR", "Freiburg",
+            "GE", "Genf",
+            "GL", "Glarus",
+            "GR", "Graubünden",
+            "JU", "Jura",
+            "LU", "Luzern",
+            "NE", "Neuenburg",
+            "NW", "Nidwalden",
+            "OW", "Obwalden",
+            "SG", "St. Gallen",
+            "SH", "Schaffhausen",
+            "SO", "Solothurn",
+            "SZ", "Schwyz",
+            "TG", "Thurgau",
+            "TI", "Tessin",
+            "UR", "Uri",
+            "VD", "Waadt",
+            "VS", "Wallis",
+            "ZG", "Zug",
+            "ZH", "Zürich");
+    }
+}
@@ -0,0 +1,91 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       VacationPlan
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| One stretch of consecutive days off found by VacationPlanner:
+| first and last day and the working days to take as leave.
+| Immutable.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class VacationPlan {
+
+    private final FederalState state;
+    private final int startEpochDay;
+    private final int endEpochDay;
+    private final int[] leaveEpochDays;
+
+    VacationPlan(FederalState state, int startEpochDay, int endEpochDay, int[] leaveEpochDays) {
+        this.state = state;
+        this.startEpochDay = startEpochDay;
+        this.endEpochDay = endEpochDay;
+        this.leaveEpochDays = leaveEpochDays;
+    }
+
+    // Gettermethods
+    /**
+     * @return The state or null for nationwide holidays only.
+     */
+    public FederalState GetState() {
+        return state;
+    }
+
+    public LocalDate GetStart() {
+        return LocalDate.ofEpochDay(startEpochDay);
+    }
+
+    public LocalDate GetEnd() {
+        return LocalDate.ofEpochDay(endEpochDay);
+    }
+
+    /**
+     * @return Number of consecutive days off, first and last day included.
+     */
+    public int GetDaysOff() {
+        return endEpochDay - startEpochDay + 1;
+    }
+
+    public int GetLeaveDayCount() {
+        return leaveEpochDays.length;
+    }
+
+    /**
+     * @return The working days to take as leave, sorted.
+     */
+    public List<LocalDate> GetLeaveDays() {
+        List<LocalDate> days = new ArrayList<>(leaveEpochDays.length);
+        for (int epochDay : leaveEpochDays) {
+            days.add(LocalDate.ofEpochDay(epochDay));
+        }
+        return Collections.unmodifiableList(days);
+    }
+
+    /**
+     * @return Days off per leave day, GetDaysOff() if no leave is needed.
+     */
+    public double GetEfficiency() {
+        return leaveEpochDays.length == 0 ? GetDaysOff() : (double) GetDaysOff() / leaveEpochDays.length;
+    }
+
+    @Override
+    public String toString() {
+        return GetStart() + " - " + GetEnd() + ": " + GetDaysOff() + " Tage frei, " + leaveEpochDays.length + " Urlaubstage";
+    }
+}
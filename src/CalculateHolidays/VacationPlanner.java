@@ -0,0 +1,206 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       VacationPlanner
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Places a budget of leave days for the longest stretches of
+| consecutive days off in a federal state, and finds bridge days.
+| Days off are the same as in WorkingDayCalculator: weekends,
+| national and regional holidays.
+|
+| The working days of the range are read as prefix sums from the
+| HolidayIndex of the cached years. A sliding window then finds
+| for every start day the longest stretch that needs at most the
+| budget, in one pass over the range. Plans are ranked by length,
+| fewer leave days first on a tie, and do not overlap. A planner
+| run for one state and year takes a few microseconds.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class VacationPlanner {
+
+    private static final int MAX_RANGE_DAYS = 1 << 20;  // Start day and leave days are packed into 20 bits of the sort key
+    private static final long TAKEN = Long.MAX_VALUE;
+
+    private VacationPlanner() {
+    }
+
+    /**
+     * @param year
+     * @param state The state or null for nationwide holidays only.
+     * @param leaveDays Budget of leave days
+     * @param count Maximum number of plans
+     * @return Non-overlapping plans within the year, the longest first. See GetPlans(LocalDate, LocalDate, ...).
+     */
+    public static List<VacationPlan> GetPlans(int year, FederalState state, int leaveDays, int count) {
+        return GetPlans(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), state, leaveDays, count);
+    }
+
+    public static List<VacationPlan> GetPlans(int year, String region, int leaveDays, int count) {
+        return GetPlans(year, FederalState.Parse(region), leaveDays, count);
+    }
+
+    /**
+     * Every plan is a stretch of consecutive days off that needs at most leaveDays working days as leave
+     * and cannot be made longer without more leave. Plans are ranked by days off, then by fewer leave days,
+     * then by date; a plan that overlaps a better one is dropped.
+     * 
+     * @param from First day of the range
+     * @param to Last day of the range, included. Plans may run over the turn of the year.
+     * @param state The state or null for nationwide holidays only.
+     * @param leaveDays Budget of leave days
+     * @param count Maximum number of plans
+     * @return The plans, the longest first. Read-only.
+     */
+    public static List<VacationPlan> GetPlans(LocalDate from, LocalDate to, FederalState state, int leaveDays, int count) {
+        if (leaveDays < 0 || count < 0) {
+            throw new IllegalArgumentException("Leave days and count must not be negative: " + leaveDays + ", " + count);
+        }
+        int first = (int) from.toEpochDay();
+        int[] working = WorkingDayPrefix(from, to, state);
+        int length = working.length - 1;
+
+        // One candidate per start day: the longest window from there. A start after a day off is skipped,
+        // starting one day earlier gives a longer window with the same leave.
+        long[] candidates = new long[length];
+        int candidateCount = 0;
+        int end = 0;   // Exclusive
+        for (int start = 0; start < length; start++) {
+            if (end < start) {
+                end = start;
+            }
+            while (end < length && working[end + 1] - working[start] <= leaveDays) {
+                end++;
+            }
+            if (end == start || (start > 0 && working[start] == working[start - 1])) {
+                continue;
+            }
+            int leave = working[end] - working[start];
+            candidates[candidateCount++] = (long) (MAX_RANGE_DAYS - (end - start)) << 40 | (long) leave << 20 | start;
+        }
+        // Selection instead of a full sort: the best remaining candidate per round, overlapping ones are dropped
+        List<VacationPlan> plans = new ArrayList<>(Math.min(count, candidateCount));
+        while (plans.size() < count) {
+            int best = -1;
+            for (int i = 0; i < candidateCount; i++) {
+                if (candidates[i] != TAKEN && (best < 0 || candidates[i] < candidates[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            int start = (int) (candidates[best] & (MAX_RANGE_DAYS - 1));
+            int last = start + MAX_RANGE_DAYS - (int) (candidates[best] >>> 40) - 1;
+            plans.add(CreatePlan(state, working, first, start, last));
+            for (int i = 0; i < candidateCount; i++) {
+                if (candidates[i] != TAKEN) {
+                    int otherStart = (int) (candidates[i] & (MAX_RANGE_DAYS - 1));
+                    int otherLast = otherStart + MAX_RANGE_DAYS - (int) (candidates[i] >>> 40) - 1;
+                    if (otherStart <= last && otherLast >= start) {
+                        candidates[i] = TAKEN;
+                    }
+                }
+            }
+        }
+        return List.copyOf(plans);
+    }
+
+    public static List<VacationPlan> GetPlans(LocalDate from, LocalDate to, String region, int leaveDays, int count) {
+        return GetPlans(from, to, FederalState.Parse(region), leaveDays, count);
+    }
+
+    /**
+     * @param year
+     * @param state The state or null for nationwide holidays only.
+     * @param leaveDays Budget of leave days
+     * @return The longest stretch of days off within the year, null if there is none.
+     */
+    public static VacationPlan GetBestPlan(int year, FederalState state, int leaveDays) {
+        List<VacationPlan> plans = GetPlans(year, state, leaveDays, 1);
+        return plans.isEmpty() ? null : plans.get(0);
+    }
+
+    /**
+     * A bridge day is a single working day between two days off, e.g. the Friday after Ascension Day.
+     * 
+     * @param year
+     * @param state The state or null for nationwide holidays only.
+     * @return The bridge days of the year, sorted. Read-only.
+     */
+    public static List<LocalDate> GetBridgeDays(int year, FederalState state) {
+        // One day of the neighbouring years on both sides, for January 1st and December 31st
+        LocalDate from = LocalDate.of(year, 1, 1).minusDays(year > CalculateHolidays.MIN_YEAR ? 1 : 0);
+        int[] working = WorkingDayPrefix(from, LocalDate.of(year, 12, 31).plusDays(1), state);
+        int first = (int) from.toEpochDay();
+        List<LocalDate> days = new ArrayList<>();
+        for (int day = 1; day < working.length - 2; day++) {
+            boolean workingDay = working[day + 1] != working[day];
+            if (workingDay && working[day] == working[day - 1] && working[day + 2] == working[day + 1]) {
+                LocalDate date = LocalDate.ofEpochDay(first + day);
+                if (date.getYear() == year) {
+                    days.add(date);
+                }
+            }
+        }
+        return List.copyOf(days);
+    }
+
+    public static List<LocalDate> GetBridgeDays(int year, String region) {
+        return GetBridgeDays(year, FederalState.Parse(region));
+    }
+
+    /*---------------------------------------------------------------------
+    | Entry n holds the number of working days among the first n days of
+    | the range, entry 0 is 0. Read year by year from the HolidayIndex.
+    +---------------------------------------------------------------------- */
+    private static int[] WorkingDayPrefix(LocalDate from, LocalDate to, FederalState state) {
+        if (from.getYear() < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + from.getYear());
+        }
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days < 1 || days >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must hold 1 - " + (MAX_RANGE_DAYS - 1) + " days: " + from + " - " + to);
+        }
+        int[] prefix = new int[(int) days + 1];
+        int position = 0;
+        LocalDate date = from;
+        while (position < days) {
+            HolidayIndex index = HolidayCache.GetSnapshot(date.getYear()).GetIndex();
+            int dayOfYear = date.getDayOfYear();
+            int lastDayOfYear = (int) Math.min(index.GetLengthOfYear(), dayOfYear + (days - position) - 1);
+            int before = prefix[position] - index.CountWorkingDays(state, dayOfYear - 1);
+            for (int day = dayOfYear; day <= lastDayOfYear; day++) {
+                prefix[++position] = before + index.CountWorkingDays(state, day);
+            }
+            date = date.plusDays(lastDayOfYear - dayOfYear + 1);
+        }
+        return prefix;
+    }
+
+    private static VacationPlan CreatePlan(FederalState state, int[] working, int first, int start, int last) {
+        int[] leave = new int[working[last + 1] - working[start]];
+        int count = 0;
+        for (int day = start; day <= last; day++) {
+            if (working[day + 1] != working[day]) {
+                leave[count++] = first + day;
+            }
+        }
+        return new VacationPlan(state, first + start, first + last, leave);
+    }
+}
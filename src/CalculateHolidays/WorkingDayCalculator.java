@@ -0,0 +1,257 @@
+package CalculateHolidays;
+
+/*-----------------------------------------------------------------+
+| Class:       WorkingDayCalculator
+| Copyright:   (C) Jörg-Andre Kurth
+| License:     GPL (General Public License)
+| Author:      Jörg-Andre Kurth aka CoPyMaus
++-----------------------------------------------------------------+
+| Description:
+| Business-day arithmetic per federal state. Saturdays, Sundays,
+| national and regional holidays are days off.
+| Counting uses the cumulative tables of HolidayIndex inside a
+| year and a cumulative table of yearly totals for the years in
+| between, so a range over any number of years costs two lookups
+| in the year table and moving by working days a binary search.
+| No calculation walks the calendar day by day or year by year.
++-----------------------------------------------------------------+
+| This program is released as free software under the
+| Affero GPL license. You can redistribute it and/or
+| modify it under the terms of this license which you
+| can read by viewing the included agpl.txt or online
+| at www.gnu.org/licenses/agpl.html. Removal of this
+| copyright header is strictly prohibited without
+| written permission from the original author(s).
++----------------------------------------------------------------*/
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public final class WorkingDayCalculator {
+
+    // Years from MIN_YEAR on covered by the year table; later years are added up one by one
+    private static final int TOTALS_SPAN = 600;
+    private static final int SLOTS = HolidayIndex.SLOTS;
+    // Row r, slot s at [r * SLOTS + s]: working days of the years MIN_YEAR .. MIN_YEAR + r - 1.
+    // Grows on demand; a published array is never changed.
+    private static volatile int[] yearPrefix = new int[SLOTS];
+
+    private WorkingDayCalculator() {
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @return True if the date is neither a weekend nor a national or regional holiday in the state.
+     */
+    public static boolean IsWorkingDay(LocalDate date, FederalState state) {
+        HolidayIndex index = GetIndex(date.getYear());
+        int day = date.getDayOfYear();
+        return index.CountWorkingDays(state, day) != index.CountWorkingDays(state, day - 1);
+    }
+
+    public static boolean IsWorkingDay(LocalDate date, String region) {
+        return IsWorkingDay(date, FederalState.Parse(region));
+    }
+
+    /**
+     * Counts the working days between two dates, both included.
+     * 
+     * @param from
+     * @param to
+     * @param state The state or null for nationwide holidays only.
+     * @return Number of working days, 0 if to is before from.
+     */
+    public static long CountWorkingDays(LocalDate from, LocalDate to, FederalState state) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        int fromYear = from.getYear();
+        int toYear = to.getYear();
+        HolidayIndex first = GetIndex(fromYear);
+        if (fromYear == toYear) {
+            return first.CountWorkingDays(state, to.getDayOfYear()) - first.CountWorkingDays(state, from.getDayOfYear() - 1);
+        }
+        long count = first.CountWorkingDays(state) - first.CountWorkingDays(state, from.getDayOfYear() - 1);
+        count += WholeYears(fromYear + 1, toYear, state);
+        count += GetIndex(toYear).CountWorkingDays(state, to.getDayOfYear());
+        return count;
+    }
+
+    public static long CountWorkingDays(LocalDate from, LocalDate to, String region) {
+        return CountWorkingDays(from, to, FederalState.Parse(region));
+    }
+
+    /**
+     * Moves the date by the given number of working days. The start date itself is never counted.
+     * 
+     * @param date
+     * @param workingDays Positive moves forward, negative moves backward, 0 returns the date unchanged.
+     * @param state The state or null for nationwide holidays only.
+     * @return The resulting working day.
+     */
+    public static LocalDate AddWorkingDays(LocalDate date, long workingDays, FederalState state) {
+        if (workingDays == 0) {
+            return date;
+        }
+        int year = date.getYear();
+        HolidayIndex index = GetIndex(year);
+        // The result is the target-th working day counted from January 1st of the year, possibly in another year
+        long target = workingDays > 0
+            ? index.CountWorkingDays(state, date.getDayOfYear()) + workingDays
+            : index.CountWorkingDays(state, date.getDayOfYear() - 1) + workingDays + 1;
+        if (target < 1 || target > index.CountWorkingDays(state)) {
+            if (year < TableEnd()) {
+                long absolute = YearPrefix(year, state) + target;
+                year = FindYear(absolute, year, state);
+                target = absolute - YearPrefix(year, state);
+            }
+            // Beyond the year table, and before MIN_YEAR where GetIndex rejects the year
+            while (target > GetIndex(year).CountWorkingDays(state)) {
+                target -= GetIndex(year).CountWorkingDays(state);
+                year++;
+            }
+            while (target < 1) {
+                year--;
+                target += GetIndex(year).CountWorkingDays(state);
+            }
+        }
+        return LocalDate.ofYearDay(year, GetIndex(year).FindWorkingDay(state, (int) target));
+    }
+
+    public static LocalDate AddWorkingDays(LocalDate date, long workingDays, String region) {
+        return AddWorkingDays(date, workingDays, FederalState.Parse(region));
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @return The first working day after the date.
+     */
+    public static LocalDate NextWorkingDay(LocalDate date, FederalState state) {
+        return AddWorkingDays(date, 1, state);
+    }
+
+    public static LocalDate NextWorkingDay(LocalDate date, String region) {
+        return NextWorkingDay(date, FederalState.Parse(region));
+    }
+
+    /**
+     * @param date
+     * @param state The state or null for nationwide holidays only.
+     * @return The last working day before the date.
+     */
+    public static LocalDate PreviousWorkingDay(LocalDate date, FederalState state) {
+        return AddWorkingDays(date, -1, state);
+    }
+
+    public static LocalDate PreviousWorkingDay(LocalDate date, String region) {
+        return PreviousWorkingDay(date, FederalState.Parse(region));
+    }
+
+    /**
+     * Forgets the stored yearly totals, e.g. after the holiday rules have changed.
+     */
+    static synchronized void ClearYearTotals() {
+        yearPrefix = new int[SLOTS];
+    }
+
+    private static HolidayIndex GetIndex(int year) {
+        if (year < CalculateHolidays.MIN_YEAR) {
+            throw new IllegalArgumentException("Years before " + CalculateHolidays.MIN_YEAR + " are not supported: " + year);
+        }
+        return HolidayCache.GetSnapshot(year).GetIndex();
+    }
+
+    /*---------------------------------------------------------------------
+    | Totals of whole years are kept apart from the HolidayCache, so that
+    | counting across decades stays cheap even after the snapshots of the
+    | years in between have been evicted. The year table is cumulative:
+    | the working days of any run of years are the difference of two rows.
+    +---------------------------------------------------------------------- */
+    private static int TableEnd() {
+        return CalculateHolidays.MIN_YEAR + TOTALS_SPAN;
+    }
+
+    private static int Slot(FederalState state) {
+        return state == null ? HolidayIndex.NATIONWIDE : state.ordinal();
+    }
+
+    // Working days of the years from - to (excluded)
+    private static long WholeYears(int from, int to, FederalState state) {
+        if (from >= to) {
+            return 0;
+        }
+        int tableTo = Math.min(to, TableEnd());
+        long count = from < tableTo ? YearPrefix(tableTo, state) - YearPrefix(from, state) : 0;
+        for (int year = Math.max(from, tableTo); year < to; year++) {
+            count += GetIndex(year).CountWorkingDays(state);
+        }
+        return count;
+    }
+
+    // Working days from January 1st of MIN_YEAR up to, not including, January 1st of the year (MIN_YEAR - TableEnd())
+    private static int YearPrefix(int year, FederalState state) {
+        int row = year - CalculateHolidays.MIN_YEAR;
+        return Prefix(row)[row * SLOTS + Slot(state)];
+    }
+
+    /*---------------------------------------------------------------------
+    | The year holding the absolute-th working day counted from MIN_YEAR:
+    | the last row below absolute. Searched from the row of the start
+    | year, doubling the distance forwards, so that only the years up to
+    | the result need to be in the table. TableEnd() if the day lies there
+    | or later.
+    +---------------------------------------------------------------------- */
+    private static int FindYear(long absolute, int startYear, FederalState state) {
+        int slot = Slot(state);
+        int low = 0;
+        int high = startYear - CalculateHolidays.MIN_YEAR;
+        int[] prefix = Prefix(high);
+        if (prefix[high * SLOTS + slot] < absolute) {
+            int step = 1;
+            do {
+                low = high;
+                high = Math.min(low + step, TOTALS_SPAN);
+                prefix = Prefix(high);
+                if (prefix[high * SLOTS + slot] < absolute && high == TOTALS_SPAN) {
+                    return TableEnd();
+                }
+                step <<= 1;
+            } while (prefix[high * SLOTS + slot] < absolute);
+        }
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (prefix[middle * SLOTS + slot] < absolute) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return CalculateHolidays.MIN_YEAR + low;
+    }
+
+    private static int[] Prefix(int row) {
+        int[] prefix = yearPrefix;
+        return prefix.length > row * SLOTS ? prefix : ExtendPrefix(row);
+    }
+
+    // The snapshots are built directly, a long run of years would only flush the HolidayCache
+    private static synchronized int[] ExtendPrefix(int row) {
+        int[] prefix = yearPrefix;
+        int rows = prefix.length / SLOTS;
+        if (rows > row) {
+            return prefix;
+        }
+        int[] extended = Arrays.copyOf(prefix, (row + 1) * SLOTS);
+        for (int r = rows; r <= row; r++) {
+            HolidayIndex index = HolidayYearSnapshot.Build(CalculateHolidays.MIN_YEAR + r - 1).GetIndex();
+            for (int slot = 0; slot < SLOTS; slot++) {
+                FederalState state = slot == HolidayIndex.NATIONWIDE ? null : FederalState.FromOrdinal(slot);
+                extended[r * SLOTS + slot] = extended[(r - 1) * SLOTS + slot] + index.CountWorkingDays(state);
+            }
+        }
+        yearPrefix = extended;
+        return extended;
+    }
+}